@@ -0,0 +1,61 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Fills the benchmark database with a deterministic catalog. Names are drawn
+ * from small word lists so that substring searches match a realistic share of
+ * the products.
+ */
+public class CatalogGenerator {
+
+	public static final int CATEGORIES = 20;
+
+	private static final String[] BRANDS = {"Acme", "Nova", "Orion", "Zen", "Vertex", "Pixel", "Atlas", "Delta"};
+	private static final String[] KINDS = {"Phone", "Laptop", "PC Gamer", "Monitor", "Keyboard", "Mouse", "Tablet", "Book"};
+	private static final String[] TAGS = {"Pro", "Max", "Lite", "Plus", "Ultra", "Mini", "Air", "One"};
+	private static final int BATCH_SIZE = 5000;
+
+	public static void populate(JdbcTemplate jdbcTemplate, int products, int categoriesPerProduct) {
+		Random random = new Random(42);
+		Timestamp now = Timestamp.from(Instant.now());
+		Long existingCategories = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_category", Long.class);
+		for (long i = existingCategories; i < CATEGORIES; i++) {
+			jdbcTemplate.update("INSERT INTO tb_category (name, created_at) VALUES (?, ?)", "Category " + (i + 1), now);
+		}
+		Long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM tb_product", Long.class);
+		List<Object[]> productRows = new ArrayList<>(BATCH_SIZE);
+		List<Object[]> categoryRows = new ArrayList<>(BATCH_SIZE * categoriesPerProduct);
+		for (int i = 0; i < products; i++) {
+			long id = firstId + i;
+			String name = BRANDS[random.nextInt(BRANDS.length)] + " " + KINDS[random.nextInt(KINDS.length)] + " "
+					+ TAGS[random.nextInt(TAGS.length)] + " " + id;
+			productRows.add(new Object[] {id, name, "Generated product " + id, 10.0 + random.nextInt(5000), now, now});
+			int first = random.nextInt(CATEGORIES);
+			for (int c = 0; c < categoriesPerProduct; c++) {
+				categoryRows.add(new Object[] {id, (long) ((first + c) % CATEGORIES) + 1});
+			}
+			if (productRows.size() == BATCH_SIZE) {
+				flush(jdbcTemplate, productRows, categoryRows);
+			}
+		}
+		flush(jdbcTemplate, productRows, categoryRows);
+		jdbcTemplate.execute("ALTER TABLE tb_product ALTER COLUMN id RESTART WITH " + (firstId + products));
+	}
+
+	private static void flush(JdbcTemplate jdbcTemplate, List<Object[]> productRows, List<Object[]> categoryRows) {
+		if (productRows.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product (id, name, description, price, date, updated_at) VALUES (?, ?, ?, ?, ?, ?)", productRows);
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)", categoryRows);
+		productRows.clear();
+		categoryRows.clear();
+	}
+}
@@ -0,0 +1,110 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscatalog.DscatalogApplication;
+
+/**
+ * Real HTTP requests from many concurrent clients against Tomcat, with request
+ * handling on platform or virtual threads and a deliberately small Hikari
+ * pool. The search index is off, so the listing goes to the database on every
+ * call, while the product by id is answered from the JSON cache: the two
+ * benchmarks show how each mode behaves when requests queue for a connection
+ * and when they do not. Compare throughput together with the p99 from
+ * SampleTime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(256)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ProductHttpBenchmark {
+
+	@Param({"true", "false"})
+	private boolean virtualThreads;
+
+	@Param({"4", "16"})
+	private int hikariPoolSize;
+
+	@Param({"10000"})
+	private int catalogSize;
+
+	private ConfigurableApplicationContext context;
+	private HttpClient client;
+	private String baseUrl;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(DscatalogApplication.class).run(
+				"--server.port=0",
+				"--spring.threads.virtual.enabled=" + virtualThreads,
+				"--spring.datasource.hikari.maximum-pool-size=" + hikariPoolSize,
+				"--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+				"--spring.jpa.show-sql=false",
+				"--catalog.search.index.enabled=false",
+				"--spring.jpa.properties.hibernate.format_sql=false",
+				"--logging.level.root=WARN");
+		CatalogGenerator.populate(context.getBean(JdbcTemplate.class), catalogSize, 1);
+		int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+		baseUrl = "http://localhost:" + port;
+		client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		client.close();
+		context.close();
+	}
+
+	@Benchmark
+	public int productsPage() throws IOException, InterruptedException {
+		int page = ThreadLocalRandom.current().nextInt(50);
+		return get("/products?size=12&sort=name&page=" + page);
+	}
+
+	@Benchmark
+	public int productById() throws IOException, InterruptedException {
+		long id = 1 + ThreadLocalRandom.current().nextInt(catalogSize);
+		return get("/products/" + id);
+	}
+
+	private int get(String path) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+		HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException(path + " returned " + response.statusCode());
+		}
+		return response.body().length;
+	}
+}
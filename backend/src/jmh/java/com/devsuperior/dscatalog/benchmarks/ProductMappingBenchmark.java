@@ -0,0 +1,92 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.util.Utils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * The in-memory steps of the search path: reordering fetched entities with
+ * Utils.reorder, building ProductDTOs and serializing a page with Jackson.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+	@Param({"12", "100", "1000"})
+	private int size;
+
+	@Param({"1", "3"})
+	private int categoriesPerProduct;
+
+	private List<Product> ordered;
+	private List<Product> shuffled;
+	private List<ProductDTO> dtos;
+	private ObjectMapper objectMapper;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		List<Category> categories = new ArrayList<>();
+		for (long i = 1; i <= CatalogGenerator.CATEGORIES; i++) {
+			categories.add(new Category(i, "Category " + i));
+		}
+		ordered = new ArrayList<>();
+		for (long i = 1; i <= size; i++) {
+			Product product = new Product(i, "Product " + i, "Generated product " + i, 10.0 + random.nextInt(5000), null, Instant.now());
+			int first = random.nextInt(categories.size());
+			for (int c = 0; c < categoriesPerProduct; c++) {
+				product.getCategories().add(categories.get((first + c) % categories.size()));
+			}
+			ordered.add(product);
+		}
+		shuffled = new ArrayList<>(ordered);
+		Collections.shuffle(shuffled, random);
+		dtos = ordered.stream().map(p -> new ProductDTO(p, p.getCategories())).toList();
+		objectMapper = JsonMapper.builder().findAndAddModules().build();
+	}
+
+	@Benchmark
+	public List<Product> reorder() {
+		return Utils.reorder(Utils.toLongArray(ordered), shuffled, Product::getId);
+	}
+
+	@Benchmark
+	public void toDto(Blackhole blackhole) {
+		for (Product product : shuffled) {
+			blackhole.consume(new ProductDTO(product, product.getCategories()));
+		}
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(dtos);
+	}
+}
@@ -0,0 +1,98 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscatalog.DscatalogApplication;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.ProductService;
+import com.devsuperior.dscatalog.services.search.ProductSearchIndex;
+
+/**
+ * ProductService.findAll end to end (search, count, category fetch and DTO
+ * mapping) against an in-memory H2 catalog, answered by the search index, by
+ * the two-step database search or by the single window-function query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ProductSearchBenchmark {
+
+	@Param({"10000", "100000"})
+	private int catalogSize;
+
+	@Param({"1", "3"})
+	private int categoriesPerProduct;
+
+	@Param({"INDEX", "TWO_STEP", "WINDOW"})
+	private String search;
+
+	private ConfigurableApplicationContext context;
+	private ProductService service;
+	private Pageable pageable;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(DscatalogApplication.class).run(
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+				"--spring.jpa.show-sql=false",
+				"--spring.jpa.properties.hibernate.format_sql=false",
+				"--catalog.search.index.enabled=" + "INDEX".equals(search),
+				"--catalog.search.index.collation=en",
+				"--catalog.search.query-mode=" + ("INDEX".equals(search) ? "WINDOW" : search),
+				"--logging.level.root=WARN");
+		CatalogGenerator.populate(context.getBean(JdbcTemplate.class), catalogSize, categoriesPerProduct);
+		context.getBean(ProductSearchIndex.class).rebuild();
+		service = context.getBean(ProductService.class);
+		pageable = PageRequest.of(0, 12, Sort.by("name"));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<ProductDTO> findAllUnfiltered() {
+		return service.findAll("", "", pageable);
+	}
+
+	@Benchmark
+	public Page<ProductDTO> findAllByName() {
+		return service.findAll("", "gamer pro", pageable);
+	}
+
+	@Benchmark
+	public Page<ProductDTO> findAllByCategory() {
+		return service.findAll("2,7", "", pageable);
+	}
+
+	@Benchmark
+	public Page<ProductDTO> findAllByCategoryAndName() {
+		return service.findAll("2,7", "phone", pageable);
+	}
+}
@@ -0,0 +1,89 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.projections.IdProjection;
+import com.devsuperior.dscatalog.util.Utils;
+
+/**
+ * Putting fetched products back in search order: the boxed HashMap version
+ * Utils.replace used to be against Utils.reorder, returning a new list or
+ * filling a preallocated array. Run with -prof gc to compare allocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReorderBenchmark {
+
+	@Param({"12", "100", "1000", "10000"})
+	private int size;
+
+	private List<Product> ordered;
+	private List<Product> shuffled;
+	private long[] orderedIds;
+	private Product[] into;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		ordered = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			long id = 1 + random.nextInt(1_000_000);
+			ordered.add(new Product(id, "Product " + id, "Generated product " + id, 10.0, null, Instant.now()));
+		}
+		shuffled = new ArrayList<>(ordered);
+		Collections.shuffle(shuffled, random);
+		orderedIds = Utils.toLongArray(ordered);
+		into = new Product[size];
+	}
+
+	@Benchmark
+	public List<? extends IdProjection<Long>> hashMap() {
+		return replace(ordered, shuffled);
+	}
+
+	@Benchmark
+	public List<Product> reorder() {
+		return Utils.reorder(Utils.toLongArray(ordered), shuffled, Product::getId);
+	}
+
+	@Benchmark
+	public int reorderInto() {
+		return Utils.reorder(orderedIds, shuffled, Product::getId, into);
+	}
+
+	private static <ID> List<? extends IdProjection<ID>> replace(List<? extends IdProjection<ID>> ordered, List<? extends IdProjection<ID>> unordered) {
+		Map<ID, IdProjection<ID>> map = new HashMap<>();
+		for (IdProjection<ID> obj : unordered) {
+			map.put(obj.getId(), obj);
+		}
+		List<IdProjection<ID>> result = new ArrayList<>();
+		for (IdProjection<ID> obj : ordered) {
+			result.add(map.get(obj.getId()));
+		}
+		return result;
+	}
+}
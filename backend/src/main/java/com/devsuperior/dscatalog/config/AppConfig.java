@@ -1,15 +1,60 @@
 package com.devsuperior.dscatalog.config;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+	@Value("${security.password.encoder}")
+	private String encoderId;
+
+	@Value("${security.password.bcrypt-strength}")
+	private Integer bcryptStrength;
+
+	@Value("${security.password.hashing.threads}")
+	private Integer hashingThreads;
+
+	@Value("${security.password.hashing.queue-capacity}")
+	private Integer hashingQueueCapacity;
+
+	@Value("${catalog.virtual-threads.pinning-monitor.threshold-ms}")
+	private Long pinningThresholdMs;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ObjectProvider<MeterRegistry> meterRegistry) {
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+		Map<String, PasswordEncoder> encoders = new HashMap<>();
+		encoders.put("bcrypt", bcrypt);
+		encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+		if (!encoders.containsKey(encoderId)) {
+			throw new IllegalStateException("Unsupported password encoder: " + encoderId);
+		}
+		// Hashes stored before the {id} prefix was introduced are plain bcrypt
+		DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoderId, encoders);
+		delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+		int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		return new BoundedPasswordEncoder(delegating, threads, hashingQueueCapacity, meterRegistry.getIfAvailable());
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "catalog.virtual-threads.pinning-monitor.enabled", havingValue = "true")
+	public VirtualThreadPinningMonitor virtualThreadPinningMonitor(ObjectProvider<MeterRegistry> meterRegistry) {
+		return new VirtualThreadPinningMonitor(Duration.ofMillis(pinningThresholdMs), meterRegistry.getIfAvailable());
 	}
 }
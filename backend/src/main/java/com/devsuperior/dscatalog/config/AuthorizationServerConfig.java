@@ -1,20 +1,19 @@
 package com.devsuperior.dscatalog.config;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
 import java.util.List;
-import java.util.UUID;
+import java.util.Set;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
@@ -42,18 +41,24 @@ import org.springframework.security.oauth2.server.authorization.token.OAuth2Acce
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.devsuperior.dscatalog.config.customgrant.CustomPasswordAuthenticationConverter;
 import com.devsuperior.dscatalog.config.customgrant.CustomPasswordAuthenticationProvider;
 import com.devsuperior.dscatalog.config.customgrant.CustomUserAuthorities;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.devsuperior.dscatalog.repositories.AuthorizationRepository;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class AuthorizationServerConfig {
 
+	// served by the authorization server filters, so no handler pattern names them
+	public static final Set<String> ENDPOINT_PATHS = Set.of(
+			"/oauth2/token", "/oauth2/jwks", "/oauth2/introspect", "/oauth2/revoke");
+
 	@Value("${security.client-id}")
 	private String clientId;
 
@@ -62,6 +67,27 @@ public class AuthorizationServerConfig {
 
 	@Value("${security.jwt.duration}")
 	private Integer jwtDurationSeconds;
+
+	@Value("${security.authorization-store.type}")
+	private String authorizationStoreType;
+
+	@Value("${security.authorization-store.sweep-chunk-size}")
+	private Integer authorizationSweepChunkSize;
+
+	@Value("${security.jwt.jwk-set-location}")
+	private String jwkSetLocation;
+
+	@Value("${security.jwt.signing-key-id}")
+	private String signingKeyId;
+
+	@Value("${security.jwt.generated-key-type}")
+	private String generatedKeyType;
+
+	@Value("${security.jwt.decoder-cache.max-size}")
+	private Long jwtCacheMaxSize;
+
+	@Value("${security.jwt.decoder-cache.max-ttl-seconds}")
+	private Long jwtCacheMaxTtlSeconds;
 	
 	@Autowired
 	private PasswordEncoder passwordEncoder;
@@ -69,6 +95,18 @@ public class AuthorizationServerConfig {
 	@Autowired
 	private UserDetailsService userDetailsService;
 
+	@Autowired
+	private UserDetailsPasswordService userDetailsPasswordService;
+
+	@Autowired
+	private AuthorizationRepository authorizationRepository;
+
+	@Autowired
+	private ResourceLoader resourceLoader;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
 	@Bean
 	@Order(2)
 	public SecurityFilterChain asSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -79,7 +117,7 @@ public class AuthorizationServerConfig {
 		http.getConfigurer(OAuth2AuthorizationServerConfigurer.class)
 			.tokenEndpoint(tokenEndpoint -> tokenEndpoint
 				.accessTokenRequestConverter(new CustomPasswordAuthenticationConverter())
-				.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder)));
+				.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder, userDetailsPasswordService)));
 
 		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
 		// @formatter:on
@@ -89,7 +127,11 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public OAuth2AuthorizationService authorizationService() {
-		return new InMemoryOAuth2AuthorizationService();
+		if ("memory".equals(authorizationStoreType)) {
+			return new InMemoryOAuth2AuthorizationService();
+		}
+		return new JpaOAuth2AuthorizationService(authorizationRepository, registeredClientRepository(), transactionTemplate,
+				authorizationSweepChunkSize);
 	}
 
 	@Bean
@@ -101,7 +143,7 @@ public class AuthorizationServerConfig {
 	public RegisteredClientRepository registeredClientRepository() {
 		// @formatter:off
 		RegisteredClient registeredClient = RegisteredClient
-			.withId(UUID.randomUUID().toString())
+			.withId(clientId)
 			.clientId(clientId)
 			.clientSecret(passwordEncoder.encode(clientSecret))
 			.scope("read")
@@ -146,10 +188,12 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public OAuth2TokenCustomizer<JwtEncodingContext> tokenCustomizer() {
+		JwtSigningKeys signingKeys = jwtSigningKeys();
 		return context -> {
 			OAuth2ClientAuthenticationToken principal = context.getPrincipal();
 			CustomUserAuthorities user = (CustomUserAuthorities) principal.getDetails();
 			List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).toList();
+			context.getJwsHeader().algorithm(signingKeys.getAlgorithm()).keyId(signingKeys.getKeyId());
 			if (context.getTokenType().getValue().equals("access_token")) {
 				// @formatter:off
 				context.getClaims()
@@ -161,33 +205,21 @@ public class AuthorizationServerConfig {
 	}
 
 	@Bean
-	public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
-		return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+	public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource, ObjectProvider<MeterRegistry> meterRegistry) {
+		JwtDecoder decoder = OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+		return new CachingJwtDecoder(decoder, jwtCacheMaxSize, Duration.ofSeconds(jwtCacheMaxTtlSeconds), meterRegistry.getIfAvailable());
 	}
 
 	@Bean
-	public JWKSource<SecurityContext> jwkSource() {
-		RSAKey rsaKey = generateRsa();
-		JWKSet jwkSet = new JWKSet(rsaKey);
-		return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
-	}
-
-	private static RSAKey generateRsa() {
-		KeyPair keyPair = generateRsaKey();
-		RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-		RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-		return new RSAKey.Builder(publicKey).privateKey(privateKey).keyID(UUID.randomUUID().toString()).build();
+	public JwtSigningKeys jwtSigningKeys() {
+		if (jwkSetLocation == null || jwkSetLocation.isBlank()) {
+			return JwtSigningKeys.generate(generatedKeyType);
+		}
+		return JwtSigningKeys.load(resourceLoader.getResource(jwkSetLocation), signingKeyId);
 	}
 
-	private static KeyPair generateRsaKey() {
-		KeyPair keyPair;
-		try {
-			KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-			keyPairGenerator.initialize(2048);
-			keyPair = keyPairGenerator.generateKeyPair();
-		} catch (Exception ex) {
-			throw new IllegalStateException(ex);
-		}
-		return keyPair;
+	@Bean
+	public JWKSource<SecurityContext> jwkSource() {
+		return jwtSigningKeys().jwkSource();
 	}
 }
@@ -0,0 +1,117 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Runs encode and matches on a small fixed pool with a bounded queue, so a
+ * burst of logins uses at most that many cores for hashing. Once the queue
+ * is full further calls fail fast with RejectedExecutionException instead of
+ * piling up behind it. upgradeEncoding only parses the stored hash and runs
+ * on the caller.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final Counter rejected;
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry registry) {
+		this.delegate = delegate;
+		AtomicInteger sequence = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+			Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		if (registry != null) {
+			new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(registry);
+			this.rejected = Counter.builder("password.hashing.rejected")
+					.description("Password hashing calls refused because the queue was full")
+					.register(registry);
+			this.encodeTimer = hashingTimer(registry, "encode");
+			this.matchesTimer = hashingTimer(registry, "matches");
+		}
+		else {
+			this.rejected = null;
+			this.encodeTimer = null;
+			this.matchesTimer = null;
+		}
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return run(encodeTimer, () -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	private <T> T run(Timer timer, Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(timer == null ? task : () -> timer.recordCallable(task));
+		}
+		catch (RejectedExecutionException e) {
+			if (rejected != null) {
+				rejected.increment();
+			}
+			throw e;
+		}
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while hashing password", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	// time spent hashing on the pool, without the wait in the queue
+	private static Timer hashingTimer(MeterRegistry registry, String operation) {
+		return Timer.builder("password.hashing")
+				.description("Time spent hashing passwords")
+				.tag("operation", operation)
+				.publishPercentileHistogram()
+				.minimumExpectedValue(Duration.ofMillis(1))
+				.maximumExpectedValue(Duration.ofSeconds(5))
+				.register(registry);
+	}
+}
@@ -0,0 +1,38 @@
+package com.devsuperior.dscatalog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String CATEGORIES = "categories";
+	public static final String CATEGORY = "category";
+	public static final String USER_DETAILS = "userDetails";
+	public static final String USER_ME = "userMe";
+
+	@Value("${cache.categories.spec}")
+	private String categoriesSpec;
+
+	@Value("${cache.users.spec}")
+	private String usersSpec;
+
+	@Bean
+	public CacheManager cacheManager() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		cacheManager.registerCustomCache(CATEGORIES, Caffeine.from(categoriesSpec).build());
+		cacheManager.registerCustomCache(CATEGORY, Caffeine.from(categoriesSpec).build());
+		cacheManager.registerCustomCache(USER_DETAILS, Caffeine.from(usersSpec).build());
+		cacheManager.registerCustomCache(USER_ME, Caffeine.from(usersSpec).build());
+		// evictions and puts made inside a transaction only apply after it commits
+		return new TransactionAwareCacheManagerProxy(cacheManager);
+	}
+}
@@ -0,0 +1,96 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.devsuperior.dscatalog.util.Utils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Keeps successfully decoded tokens keyed by the SHA-256 of the raw token, so
+ * a client reusing one access token pays for the signature check once. An
+ * entry never outlives the token's exp claim, and exp is checked again on
+ * every hit. Failed decodes are not cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+	private final JwtDecoder delegate;
+	private final Clock clock;
+	private final Cache<String, Jwt> cache;
+
+	public CachingJwtDecoder(JwtDecoder delegate, long maxSize, Duration maxTtl, MeterRegistry meterRegistry) {
+		this(delegate, maxSize, maxTtl, meterRegistry, Clock.systemUTC());
+	}
+
+	CachingJwtDecoder(JwtDecoder delegate, long maxSize, Duration maxTtl, MeterRegistry meterRegistry, Clock clock) {
+		this.delegate = delegate;
+		this.clock = clock;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new TokenExpiry(clock, maxTtl))
+				.recordStats()
+				.build();
+		if (meterRegistry != null) {
+			CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtDecoder");
+		}
+	}
+
+	@Override
+	public Jwt decode(String token) throws JwtException {
+		String key = Utils.sha256Hex(token);
+		Jwt jwt = cache.getIfPresent(key);
+		if (jwt != null && token.equals(jwt.getTokenValue()) && isLive(jwt)) {
+			return jwt;
+		}
+		if (jwt != null) {
+			cache.invalidate(key);
+		}
+		jwt = delegate.decode(token);
+		if (isLive(jwt)) {
+			cache.put(key, jwt);
+		}
+		return jwt;
+	}
+
+	private boolean isLive(Jwt jwt) {
+		return jwt.getExpiresAt() != null && clock.instant().isBefore(jwt.getExpiresAt());
+	}
+
+	private static class TokenExpiry implements Expiry<String, Jwt> {
+
+		private final Clock clock;
+		private final Duration maxTtl;
+
+		TokenExpiry(Clock clock, Duration maxTtl) {
+			this.clock = clock;
+			this.maxTtl = maxTtl;
+		}
+
+		@Override
+		public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+			Instant now = clock.instant();
+			Duration untilExp = Duration.between(now, jwt.getExpiresAt());
+			return Math.max(0, Math.min(untilExp.toNanos(), maxTtl.toNanos()));
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, jwt, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces the auto-configured pool with a primary pool plus one pool per
+ * replica URL, routed by {@link ReplicaRouter}. Replicas use the primary's
+ * credentials and spring.datasource.hikari settings.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.datasource.replicas.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+	@Value("${catalog.datasource.replicas.urls}")
+	private String replicaUrls;
+
+	@Value("${catalog.datasource.replicas.pool-size}")
+	private Integer replicaPoolSize;
+
+	@Value("${catalog.datasource.replicas.max-lag-ms}")
+	private Long maxLagMs;
+
+	@Value("${catalog.datasource.replicas.lag-query}")
+	private String lagQuery;
+
+	@Value("${catalog.datasource.replicas.read-your-writes-seconds}")
+	private Long readYourWritesSeconds;
+
+	@Bean
+	public ReplicaRouter replicaRouter(DataSourceProperties properties, Environment environment,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		HikariDataSource primary = pool(properties, environment, properties.determineUrl(), "primary", registry);
+		List<HikariDataSource> replicas = new ArrayList<>();
+		for (String url : replicaUrls.split(",")) {
+			if (!url.isBlank()) {
+				HikariDataSource replica = pool(properties, environment, url.trim(), "replica-" + (replicas.size() + 1), registry);
+				replica.setMaximumPoolSize(replicaPoolSize);
+				replica.setReadOnly(true);
+				replicas.add(replica);
+			}
+		}
+		if (replicas.isEmpty()) {
+			throw new IllegalStateException("catalog.datasource.replicas.urls must list at least one replica");
+		}
+		ReplicaRouter router = new ReplicaRouter(primary, replicas, Duration.ofMillis(maxLagMs), lagQuery,
+				Duration.ofSeconds(readYourWritesSeconds), registry);
+		router.refreshLag();
+		return router;
+	}
+
+	@Bean
+	public DataSource dataSource(ReplicaRouter replicaRouter) {
+		return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(replicaRouter));
+	}
+
+	private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url, String name,
+			MeterRegistry registry) {
+		HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+		Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+		pool.setPoolName(name);
+		if (registry != null) {
+			pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+		}
+		return pool;
+	}
+}
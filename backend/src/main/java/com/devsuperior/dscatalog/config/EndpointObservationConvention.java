@@ -0,0 +1,25 @@
+package com.devsuperior.dscatalog.config;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import io.micrometer.common.KeyValue;
+
+/**
+ * Tags the authorization server endpoints with their path. They are served by
+ * filters rather than handlers, so the default convention reports them as
+ * UNKNOWN together with every unmatched request.
+ */
+public class EndpointObservationConvention extends DefaultServerRequestObservationConvention {
+
+	@Override
+	protected KeyValue uri(ServerRequestObservationContext context) {
+		if (context.getPathPattern() == null && context.getCarrier() != null) {
+			String path = context.getCarrier().getRequestURI().substring(context.getCarrier().getContextPath().length());
+			if (AuthorizationServerConfig.ENDPOINT_PATHS.contains(path)) {
+				return KeyValue.of("uri", path);
+			}
+		}
+		return super.uri(context);
+	}
+}
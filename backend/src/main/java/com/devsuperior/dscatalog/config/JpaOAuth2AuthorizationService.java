@@ -0,0 +1,164 @@
+package com.devsuperior.dscatalog.config;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import com.devsuperior.dscatalog.entities.Authorization;
+import com.devsuperior.dscatalog.repositories.AuthorizationRepository;
+import com.devsuperior.dscatalog.util.Utils;
+import com.nimbusds.jwt.JWTParser;
+
+/**
+ * Stores authorizations in tb_oauth2_authorization so every instance sees the
+ * same tokens. Only what the password grant issues is kept: the access token
+ * with its timestamps, scopes and invalidated flag. Token claims are read back
+ * from the JWT itself instead of being serialized next to it, and the client
+ * principal attribute is not stored at all. Rows are looked up by a SHA-256 of
+ * the token and swept once the token has expired.
+ */
+public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService {
+
+	private static final Logger logger = LoggerFactory.getLogger(JpaOAuth2AuthorizationService.class);
+
+	private final AuthorizationRepository repository;
+	private final RegisteredClientRepository registeredClientRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final int sweepChunkSize;
+
+	public JpaOAuth2AuthorizationService(AuthorizationRepository repository, RegisteredClientRepository registeredClientRepository,
+			TransactionTemplate transactionTemplate, int sweepChunkSize) {
+		Assert.notNull(repository, "repository cannot be null");
+		Assert.notNull(registeredClientRepository, "registeredClientRepository cannot be null");
+		Assert.notNull(transactionTemplate, "transactionTemplate cannot be null");
+		this.repository = repository;
+		this.registeredClientRepository = registeredClientRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.sweepChunkSize = sweepChunkSize;
+	}
+
+	@Override
+	@Transactional
+	public void save(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		repository.save(toEntity(authorization));
+	}
+
+	@Override
+	@Transactional
+	public void remove(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		repository.deleteById(authorization.getId());
+	}
+
+	// not read-only, so lookups stay on the primary and see tokens revoked or issued a moment ago
+	@Override
+	@Transactional
+	public OAuth2Authorization findById(String id) {
+		Assert.hasText(id, "id cannot be empty");
+		return repository.findById(id).map(this::toObject).orElse(null);
+	}
+
+	@Override
+	@Transactional
+	public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+		Assert.hasText(token, "token cannot be empty");
+		if (tokenType != null && !OAuth2TokenType.ACCESS_TOKEN.equals(tokenType)) {
+			return null;
+		}
+		return repository.findByAccessTokenHash(Utils.sha256Hex(token)).map(this::toObject).orElse(null);
+	}
+
+	@Scheduled(fixedDelayString = "${security.authorization-store.sweep-interval-ms}")
+	public void sweepExpired() {
+		Instant before = Instant.now();
+		int total = 0;
+		int deleted;
+		do {
+			deleted = transactionTemplate.execute(status -> repository.deleteExpired(before, sweepChunkSize));
+			total += deleted;
+		}
+		while (deleted == sweepChunkSize);
+		if (total > 0) {
+			logger.info("Removed {} expired authorizations", total);
+		}
+	}
+
+	private Authorization toEntity(OAuth2Authorization authorization) {
+		Authorization entity = new Authorization();
+		entity.setId(authorization.getId());
+		entity.setRegisteredClientId(authorization.getRegisteredClientId());
+		entity.setPrincipalName(authorization.getPrincipalName());
+		entity.setAuthorizationGrantType(authorization.getAuthorizationGrantType().getValue());
+		entity.setAuthorizedScopes(String.join(",", authorization.getAuthorizedScopes()));
+		OAuth2Authorization.Token<OAuth2AccessToken> accessToken = authorization.getAccessToken();
+		if (accessToken != null) {
+			entity.setAccessTokenValue(accessToken.getToken().getTokenValue());
+			entity.setAccessTokenHash(Utils.sha256Hex(accessToken.getToken().getTokenValue()));
+			entity.setAccessTokenIssuedAt(accessToken.getToken().getIssuedAt());
+			entity.setAccessTokenExpiresAt(accessToken.getToken().getExpiresAt());
+			entity.setAccessTokenInvalidated(accessToken.isInvalidated());
+		}
+		return entity;
+	}
+
+	private OAuth2Authorization toObject(Authorization entity) {
+		RegisteredClient registeredClient = registeredClientRepository.findById(entity.getRegisteredClientId());
+		if (registeredClient == null) {
+			throw new DataRetrievalFailureException("The RegisteredClient with id '" + entity.getRegisteredClientId()
+					+ "' was not found in the RegisteredClientRepository.");
+		}
+		Set<String> scopes = new LinkedHashSet<>();
+		if (entity.getAuthorizedScopes() != null && !entity.getAuthorizedScopes().isEmpty()) {
+			scopes.addAll(Arrays.asList(entity.getAuthorizedScopes().split(",")));
+		}
+		OAuth2Authorization.Builder builder = OAuth2Authorization.withRegisteredClient(registeredClient)
+				.id(entity.getId())
+				.principalName(entity.getPrincipalName())
+				.authorizationGrantType(new AuthorizationGrantType(entity.getAuthorizationGrantType()))
+				.authorizedScopes(scopes);
+		if (entity.getAccessTokenValue() != null) {
+			OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+					entity.getAccessTokenValue(), entity.getAccessTokenIssuedAt(), entity.getAccessTokenExpiresAt(), scopes);
+			Map<String, Object> claims = readClaims(entity.getAccessTokenValue());
+			builder.token(accessToken, metadata -> {
+				metadata.put(OAuth2Authorization.Token.INVALIDATED_METADATA_NAME, entity.isAccessTokenInvalidated());
+				if (claims != null) {
+					metadata.put(OAuth2Authorization.Token.CLAIMS_METADATA_NAME, claims);
+				}
+			});
+		}
+		return builder.build();
+	}
+
+	private static Map<String, Object> readClaims(String tokenValue) {
+		try {
+			Map<String, Object> claims = new HashMap<>(JWTParser.parse(tokenValue).getJWTClaimsSet().getClaims());
+			claims.replaceAll((name, value) -> value instanceof Date date ? date.toInstant() : value);
+			return claims;
+		}
+		catch (ParseException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.devsuperior.dscatalog.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.UUID;
+
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+/**
+ * The JWK set used to sign and verify access tokens. Tokens are signed with a
+ * single active key, chosen by kid, while every key in the set is published
+ * and accepted for verification. Rotating keys means adding the new key,
+ * switching the active kid and, once old tokens have expired, dropping the
+ * previous key (or keeping only its public part until then).
+ */
+public class JwtSigningKeys {
+
+	private final JWKSet jwkSet;
+	private final JWK signingKey;
+	private final SignatureAlgorithm algorithm;
+
+	private JwtSigningKeys(JWKSet jwkSet, JWK signingKey) {
+		this.jwkSet = jwkSet;
+		this.signingKey = signingKey;
+		this.algorithm = algorithmOf(signingKey);
+	}
+
+	public static JwtSigningKeys load(Resource resource, String activeKeyId) {
+		JWKSet jwkSet;
+		try (InputStream in = resource.getInputStream()) {
+			jwkSet = JWKSet.load(in);
+		}
+		catch (IOException | ParseException e) {
+			throw new IllegalStateException("Cannot read JWK set from " + resource.getDescription(), e);
+		}
+		JWK signingKey = null;
+		for (JWK key : jwkSet.getKeys()) {
+			boolean canSign = key.isPrivate() && (key.getKeyUse() == null || KeyUse.SIGNATURE.equals(key.getKeyUse()));
+			if (canSign && (activeKeyId == null || activeKeyId.isBlank() || activeKeyId.equals(key.getKeyID()))) {
+				signingKey = key;
+				break;
+			}
+		}
+		if (signingKey == null) {
+			throw new IllegalStateException("No private signing key" + (activeKeyId == null || activeKeyId.isBlank() ? "" : " with kid '" + activeKeyId + "'")
+					+ " found at " + resource.getDescription());
+		}
+		if (signingKey.getKeyID() == null) {
+			throw new IllegalStateException("The active signing key must have a kid");
+		}
+		return new JwtSigningKeys(jwkSet, signingKey);
+	}
+
+	public static JwtSigningKeys generate(String keyType) {
+		try {
+			JWK key;
+			if ("EC".equalsIgnoreCase(keyType)) {
+				key = new ECKeyGenerator(Curve.P_256).keyUse(KeyUse.SIGNATURE).keyID(UUID.randomUUID().toString()).generate();
+			}
+			else if ("RSA".equalsIgnoreCase(keyType)) {
+				key = new RSAKeyGenerator(2048).keyUse(KeyUse.SIGNATURE).keyID(UUID.randomUUID().toString()).generate();
+			}
+			else {
+				throw new IllegalStateException("Unsupported key type: " + keyType);
+			}
+			return new JwtSigningKeys(new JWKSet(key), key);
+		}
+		catch (JOSEException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public JWKSource<SecurityContext> jwkSource() {
+		return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
+	}
+
+	public String getKeyId() {
+		return signingKey.getKeyID();
+	}
+
+	public SignatureAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	private static SignatureAlgorithm algorithmOf(JWK key) {
+		if (key.getAlgorithm() != null) {
+			SignatureAlgorithm algorithm = SignatureAlgorithm.from(key.getAlgorithm().getName());
+			if (algorithm == null) {
+				throw new IllegalStateException("Unsupported signing algorithm: " + key.getAlgorithm().getName());
+			}
+			return algorithm;
+		}
+		if (key instanceof RSAKey) {
+			return SignatureAlgorithm.RS256;
+		}
+		if (key instanceof ECKey ecKey) {
+			if (Curve.P_256.equals(ecKey.getCurve())) {
+				return SignatureAlgorithm.ES256;
+			}
+			if (Curve.P_384.equals(ecKey.getCurve())) {
+				return SignatureAlgorithm.ES384;
+			}
+			if (Curve.P_521.equals(ecKey.getCurve())) {
+				return SignatureAlgorithm.ES512;
+			}
+		}
+		throw new IllegalStateException("Unsupported signing key type: " + key.getKeyType());
+	}
+}
@@ -0,0 +1,14 @@
+package com.devsuperior.dscatalog.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public ServerRequestObservationConvention endpointObservationConvention() {
+		return new EndpointObservationConvention();
+	}
+}
@@ -0,0 +1,180 @@
+package com.devsuperior.dscatalog.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.devsuperior.dscatalog.resources.exceptions.StandardError;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rate limits the sign-in and password recovery endpoints before the request
+ * reaches the security chains, first by client address and then by the
+ * account named in the request: the username form parameter of the token
+ * endpoint or the email in a recover-token body. Rejected requests get 429
+ * with Retry-After. JSON bodies are buffered to find the email, so one
+ * over 4 KB is rejected with 413 rather than passed on without an account
+ * key.
+ * <p>
+ * The address key is {@code getRemoteAddr()}. Behind a reverse proxy set
+ * server.forward-headers-strategy so it is the forwarded client address,
+ * otherwise every client shares the proxy's bucket.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private static final int MAX_BODY_BYTES = 4096;
+
+	private final RateLimiter ipLimiter;
+	private final RateLimiter accountLimiter;
+	private final ObjectMapper objectMapper;
+	private final Counter ipRejected;
+	private final Counter accountRejected;
+
+	public RateLimitFilter(RateLimiter ipLimiter, RateLimiter accountLimiter, ObjectMapper objectMapper, MeterRegistry registry) {
+		this.ipLimiter = ipLimiter;
+		this.accountLimiter = accountLimiter;
+		this.objectMapper = objectMapper;
+		this.ipRejected = registry == null ? null : rejectedCounter(registry, "ip");
+		this.accountRejected = registry == null ? null : rejectedCounter(registry, "account");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!"POST".equals(request.getMethod()) && !"PUT".equals(request.getMethod())) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		long wait = ipLimiter.tryAcquire(request.getRemoteAddr());
+		if (wait > 0) {
+			reject(request, response, wait, ipRejected);
+			return;
+		}
+		HttpServletRequest target = request;
+		String account;
+		if (request.getContentType() != null && request.getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE)) {
+			byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+			if (body.length > MAX_BODY_BYTES) {
+				// these endpoints take a single small DTO; passing a padded body on unkeyed would skip the account limit
+				writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "Payload too large",
+						"Request body exceeds " + MAX_BODY_BYTES + " bytes");
+				return;
+			}
+			target = new CachedBodyRequest(request, body);
+			account = emailOf(body);
+		}
+		else {
+			account = request.getParameter("username");
+		}
+		if (account != null && !account.isBlank()) {
+			wait = accountLimiter.tryAcquire(account.trim().toLowerCase(Locale.ROOT));
+			if (wait > 0) {
+				reject(request, response, wait, accountRejected);
+				return;
+			}
+		}
+		filterChain.doFilter(target, response);
+	}
+
+	private String emailOf(byte[] body) {
+		try {
+			JsonNode email = objectMapper.readTree(body).path("email");
+			return email.isTextual() ? email.asText() : null;
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos, Counter counter) throws IOException {
+		if (counter != null) {
+			counter.increment();
+		}
+		long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+		response.setHeader("Retry-After", Long.toString(retryAfter));
+		writeError(request, response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests", "Try again in " + retryAfter + " seconds");
+	}
+
+	private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String error,
+			String message) throws IOException {
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		StandardError err = new StandardError(Instant.now(), status.value(), error, message, request.getRequestURI());
+		objectMapper.writeValue(response.getOutputStream(), err);
+	}
+
+	private static Counter rejectedCounter(MeterRegistry registry, String scope) {
+		return Counter.builder("http.rate-limit.rejected")
+				.description("Requests rejected by the auth rate limiter")
+				.tag("scope", scope)
+				.register(registry);
+	}
+
+	private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		CachedBodyRequest(HttpServletRequest request, byte[] body) {
+			super(request);
+			this.body = body;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream in = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+
+				@Override
+				public int read() {
+					return in.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) {
+					return in.read(b, off, len);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return in.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener listener) {
+					// the body is already in memory, so it is all available at once
+					try {
+						if (!isFinished()) {
+							listener.onDataAvailable();
+						}
+						listener.onAllDataRead();
+					}
+					catch (IOException e) {
+						listener.onError(e);
+					}
+				}
+			};
+		}
+	}
+}
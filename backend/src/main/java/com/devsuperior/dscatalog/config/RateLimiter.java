@@ -0,0 +1,58 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Token buckets implemented as GCRA: each key holds a single AtomicLong, the
+ * theoretical arrival time of the next request, and a request is admitted by
+ * one compare-and-set when that time is no more than a full burst ahead of
+ * now. An idle key is indistinguishable from a full bucket once a period has
+ * passed, so keys are evicted after that long without access, and the total
+ * number of keys is capped.
+ */
+public class RateLimiter {
+
+	private final long emissionIntervalNanos;
+	private final long burstNanos;
+	private final LongSupplier nanoClock;
+	private final Cache<String, AtomicLong> buckets;
+
+	public RateLimiter(int limit, Duration period, long maxKeys) {
+		this(limit, period, maxKeys, System::nanoTime);
+	}
+
+	RateLimiter(int limit, Duration period, long maxKeys, LongSupplier nanoClock) {
+		this.emissionIntervalNanos = period.toNanos() / limit;
+		this.burstNanos = emissionIntervalNanos * limit;
+		this.nanoClock = nanoClock;
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maxKeys)
+				.expireAfterAccess(period)
+				.build();
+	}
+
+	/**
+	 * Returns 0 when the request is admitted, otherwise how long to wait before
+	 * the next one would be, in nanoseconds.
+	 */
+	public long tryAcquire(String key) {
+		AtomicLong state = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+		while (true) {
+			long now = nanoClock.getAsLong();
+			long tat = state.get();
+			long next = (tat == Long.MIN_VALUE || tat - now < 0 ? now : tat) + emissionIntervalNanos;
+			long ahead = next - now;
+			if (ahead > burstNanos) {
+				return ahead - burstNanos;
+			}
+			if (state.compareAndSet(tat, next)) {
+				return 0;
+			}
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package com.devsuperior.dscatalog.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Picks the pool each connection comes from. Read-only transactions go round
+ * robin to the replicas whose last measured lag is within maxLag, and to the
+ * primary when none is; everything else goes to the primary. A user whose
+ * write transaction committed within the read-your-writes window keeps
+ * reading from the primary, so they see their own change even when the
+ * replicas have not replayed it yet. The window is tracked per instance and
+ * needs an authenticated user, so shared caches are filled through
+ * {@link #readFromPrimary(Supplier)} instead.
+ */
+public class ReplicaRouter implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+	private static final long UNREACHABLE = Long.MAX_VALUE;
+	private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+	private final HikariDataSource primary;
+	private final List<Replica> replicas;
+	private final long maxLagMillis;
+	private final String lagQuery;
+	private final Cache<String, Boolean> recentWriters;
+	private final AtomicInteger next = new AtomicInteger();
+	private final Counter recentWriteFallbacks;
+	private final Counter lagFallbacks;
+
+	public ReplicaRouter(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag, String lagQuery,
+			Duration readYourWritesWindow, MeterRegistry registry) {
+		this.primary = primary;
+		this.replicas = replicas.stream().map(Replica::new).toList();
+		this.maxLagMillis = maxLag.toMillis();
+		this.lagQuery = lagQuery;
+		this.recentWriters = readYourWritesWindow.isZero() ? null : Caffeine.newBuilder()
+				.expireAfterWrite(readYourWritesWindow)
+				.maximumSize(100_000)
+				.build();
+		if (registry != null) {
+			for (Replica replica : this.replicas) {
+				Gauge.builder("db.replica.lag", replica, x -> x.lagMillis == UNREACHABLE ? Double.NaN : x.lagMillis)
+						.description("Replication lag last measured on the replica, NaN while it is unreachable")
+						.tag("pool", replica.pool.getPoolName())
+						.baseUnit("milliseconds")
+						.register(registry);
+			}
+			this.recentWriteFallbacks = fallbackCounter(registry, "recent-write");
+			this.lagFallbacks = fallbackCounter(registry, "lag");
+		}
+		else {
+			this.recentWriteFallbacks = null;
+			this.lagFallbacks = null;
+		}
+	}
+
+	/**
+	 * Runs the call with read-only transactions on the primary. Used to fill
+	 * caches and indexes that outlive replica lag, so a value loaded right
+	 * after an update is never an older copy. A transaction that already holds
+	 * a connection keeps it.
+	 */
+	public static <T> T readFromPrimary(Supplier<T> call) {
+		Boolean previous = PRIMARY_READS.get();
+		PRIMARY_READS.set(Boolean.TRUE);
+		try {
+			return call.get();
+		}
+		finally {
+			if (previous == null) {
+				PRIMARY_READS.remove();
+			}
+		}
+	}
+
+	public static void readFromPrimary(Runnable call) {
+		readFromPrimary(() -> {
+			call.run();
+			return null;
+		});
+	}
+
+	public DataSource route() {
+		String user = currentUser();
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (user != null && recentWriters != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+					@Override
+					public void afterCommit() {
+						recentWriters.put(user, Boolean.TRUE);
+					}
+				});
+			}
+			return primary;
+		}
+		if (PRIMARY_READS.get() != null) {
+			return primary;
+		}
+		if (user != null && recentWriters != null && recentWriters.getIfPresent(user) != null) {
+			increment(recentWriteFallbacks);
+			return primary;
+		}
+		int size = replicas.size();
+		int start = Math.floorMod(next.getAndIncrement(), size);
+		for (int i = 0; i < size; i++) {
+			Replica replica = replicas.get((start + i) % size);
+			if (replica.lagMillis <= maxLagMillis) {
+				return replica.pool;
+			}
+		}
+		increment(lagFallbacks);
+		return primary;
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.datasource.replicas.lag-check-interval-ms}")
+	public void refreshLag() {
+		for (Replica replica : replicas) {
+			long lag;
+			try (Connection connection = replica.pool.getConnection();
+					Statement statement = connection.createStatement();
+					ResultSet rs = statement.executeQuery(lagQuery)) {
+				// no row or NULL: the server is not replaying anything, so it cannot be behind
+				lag = rs.next() ? Math.max(0, rs.getLong(1)) : 0;
+			}
+			catch (SQLException e) {
+				if (replica.lagMillis != UNREACHABLE) {
+					logger.warn("Replica {} is unreachable, reading from the primary: {}", replica.pool.getPoolName(), e.getMessage());
+				}
+				lag = UNREACHABLE;
+			}
+			replica.lagMillis = lag;
+		}
+	}
+
+	@Override
+	public void destroy() {
+		replicas.forEach(replica -> replica.pool.close());
+		primary.close();
+	}
+
+	private static String currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+			return null;
+		}
+		return authentication.getName();
+	}
+
+	private static void increment(Counter counter) {
+		if (counter != null) {
+			counter.increment();
+		}
+	}
+
+	private static Counter fallbackCounter(MeterRegistry registry, String reason) {
+		return Counter.builder("db.replica.fallbacks")
+				.description("Read-only transactions sent to the primary instead of a replica")
+				.tag("reason", reason)
+				.register(registry);
+	}
+
+	private static class Replica {
+
+		private final HikariDataSource pool;
+		private volatile long lagMillis = UNREACHABLE;
+
+		Replica(HikariDataSource pool) {
+			this.pool = pool;
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.devsuperior.dscatalog.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Hands out connections from the pool {@link ReplicaRouter} picks. It has to
+ * sit behind a LazyConnectionDataSourceProxy: the transaction manager asks
+ * for a connection before the transaction is marked read-only, and the proxy
+ * only fetches it once the first statement runs.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+	private final ReplicaRouter router;
+
+	public ReplicaRoutingDataSource(ReplicaRouter router) {
+		this.router = router;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return router.route().getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return router.route().getConnection(username, password);
+	}
+}
@@ -1,8 +1,13 @@
 package com.devsuperior.dscatalog.config;
 
+import java.time.Duration;
 import java.util.Arrays;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -22,6 +27,10 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -30,6 +39,21 @@ public class ResourceServerConfig {
 	@Value("${cors.origins}")
 	private String corsOrigins;
 
+	@Value("${security.rate-limit.ip.limit}")
+	private Integer ipLimit;
+
+	@Value("${security.rate-limit.ip.period-seconds}")
+	private Long ipPeriodSeconds;
+
+	@Value("${security.rate-limit.account.limit}")
+	private Integer accountLimit;
+
+	@Value("${security.rate-limit.account.period-seconds}")
+	private Long accountPeriodSeconds;
+
+	@Value("${security.rate-limit.max-keys}")
+	private Long rateLimitMaxKeys;
+
 	@Bean
 	@Profile("test")
 	@Order(1)
@@ -45,7 +69,9 @@ public class ResourceServerConfig {
 	public SecurityFilterChain rsSecurityFilterChain(HttpSecurity http) throws Exception {
 
 		http.csrf(csrf -> csrf.disable());
-		http.authorizeHttpRequests((authorize) -> authorize.anyRequest().permitAll());
+		http.authorizeHttpRequests((authorize) -> authorize
+				.requestMatchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class)).hasRole("ADMIN")
+				.anyRequest().permitAll());
 		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
 		http.cors(cors -> cors.configurationSource(corsConfigurationSource()));
 		return http.build();
@@ -85,4 +111,16 @@ public class ResourceServerConfig {
 		bean.setOrder(Ordered.HIGHEST_PRECEDENCE);
 		return bean;
 	}
+
+	@Bean
+	@ConditionalOnProperty(name = "security.rate-limit.enabled", havingValue = "true")
+	FilterRegistrationBean<RateLimitFilter> rateLimitFilter(ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry) {
+		RateLimiter ipLimiter = new RateLimiter(ipLimit, Duration.ofSeconds(ipPeriodSeconds), rateLimitMaxKeys);
+		RateLimiter accountLimiter = new RateLimiter(accountLimit, Duration.ofSeconds(accountPeriodSeconds), rateLimitMaxKeys);
+		FilterRegistrationBean<RateLimitFilter> bean = new FilterRegistrationBean<>(
+				new RateLimitFilter(ipLimiter, accountLimiter, objectMapper, meterRegistry.getIfAvailable()));
+		bean.addUrlPatterns("/oauth2/token", "/auth/recover-token", "/auth/new-password");
+		bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+		return bean;
+	}
 }
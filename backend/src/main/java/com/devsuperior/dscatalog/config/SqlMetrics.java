@@ -0,0 +1,252 @@
+package com.devsuperior.dscatalog.config;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogic;
+
+/**
+ * Records every JDBC statement going through the proxied DataSource, tagged
+ * with the endpoint being served and the repository method that issued it:
+ * db.statements times each execution, db.statements.rows counts the rows it
+ * read or changed, and db.request.statements the statements of each request.
+ * Rows read are counted as the ResultSet is iterated and recorded when it is
+ * closed. The context lives in a thread local set by the request filter and
+ * by the repository interceptor, so statements from scheduled jobs and other
+ * threads are tagged "none".
+ */
+public class SqlMetrics implements QueryExecutionListener, ResultSetProxyLogicFactory {
+
+	public static final String NONE = "none";
+
+	private static final String START = SqlMetrics.class.getName() + ".start";
+	private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+
+	private final MeterRegistry registry;
+	private final boolean percentileHistogram;
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+	private final Map<String, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+	private final Map<String, DistributionSummary> requestSummaries = new ConcurrentHashMap<>();
+
+	public SqlMetrics(MeterRegistry registry, boolean percentileHistogram) {
+		this.registry = registry;
+		this.percentileHistogram = percentileHistogram;
+	}
+
+	/**
+	 * Starts counting the statements issued by the current thread until the
+	 * returned capture is closed.
+	 */
+	public static Capture capture() {
+		Context context = CONTEXT.get();
+		Capture capture = new Capture(context, context.capture);
+		context.capture = capture;
+		return capture;
+	}
+
+	static String enterEndpoint(String endpoint) {
+		Context context = CONTEXT.get();
+		String previous = context.endpoint;
+		context.endpoint = endpoint;
+		context.requestStatements = 0;
+		return previous;
+	}
+
+	static void updateEndpoint(String endpoint) {
+		CONTEXT.get().endpoint = endpoint;
+	}
+
+	void exitEndpoint(String previous) {
+		Context context = CONTEXT.get();
+		if (registry != null) {
+			String endpoint = context.endpoint;
+			requestSummaries.computeIfAbsent(endpoint, key -> DistributionSummary.builder("db.request.statements")
+					.description("JDBC statements issued while serving a request")
+					.tag("endpoint", key)
+					.register(registry))
+					.record(context.requestStatements);
+		}
+		context.endpoint = previous;
+		context.requestStatements = 0;
+	}
+
+	static String enterRepository(String repositoryMethod) {
+		Context context = CONTEXT.get();
+		String previous = context.repository;
+		context.repository = repositoryMethod;
+		return previous;
+	}
+
+	static void exitRepository(String previous) {
+		CONTEXT.get().repository = previous;
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		execInfo.addCustomValue(START, System.nanoTime());
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		long elapsed = System.nanoTime() - execInfo.getCustomValue(START, Long.class);
+		Context context = CONTEXT.get();
+		context.requestStatements++;
+		if (context.capture != null) {
+			context.capture.record(context.repository);
+		}
+		if (registry == null) {
+			return;
+		}
+		String endpoint = context.endpoint;
+		String repository = context.repository;
+		String type = queryInfoList.isEmpty() ? "other" : type(queryInfoList.get(0).getQuery());
+		timer(endpoint, repository, type, execInfo.isSuccess()).record(elapsed, TimeUnit.NANOSECONDS);
+		long updated = updatedRows(execInfo.getResult());
+		if (updated >= 0) {
+			rows(endpoint, repository).record(updated);
+		}
+	}
+
+	@Override
+	public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+		ResultSetProxyLogic delegate = new SimpleResultSetProxyLogic(resultSet, connectionInfo, proxyConfig);
+		if (registry == null) {
+			return delegate;
+		}
+		Context context = CONTEXT.get();
+		DistributionSummary summary = rows(context.endpoint, context.repository);
+		return new ResultSetProxyLogic() {
+
+			private long rows;
+			private boolean recorded;
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				Object result = delegate.invoke(proxy, method, args);
+				String name = method.getName();
+				if ("next".equals(name)) {
+					if (Boolean.TRUE.equals(result)) {
+						rows++;
+					}
+				}
+				else if ("close".equals(name) && !recorded) {
+					recorded = true;
+					summary.record(rows);
+				}
+				return result;
+			}
+		};
+	}
+
+	private Timer timer(String endpoint, String repository, String type, boolean success) {
+		String key = endpoint + '|' + repository + '|' + type + '|' + success;
+		return timers.computeIfAbsent(key, k -> Timer.builder("db.statements")
+				.description("JDBC statement executions")
+				.tag("endpoint", endpoint)
+				.tag("repository", repository)
+				.tag("type", type)
+				.tag("outcome", success ? "success" : "error")
+				.publishPercentileHistogram(percentileHistogram)
+				.maximumExpectedValue(Duration.ofSeconds(10))
+				.register(registry));
+	}
+
+	private DistributionSummary rows(String endpoint, String repository) {
+		String key = endpoint + '|' + repository;
+		return rowSummaries.computeIfAbsent(key, k -> DistributionSummary.builder("db.statements.rows")
+				.description("Rows read or changed per JDBC statement")
+				.tag("endpoint", endpoint)
+				.tag("repository", repository)
+				.register(registry));
+	}
+
+	private static String type(String sql) {
+		QueryType type = QueryUtils.getQueryType(sql);
+		return type == null ? "other" : type.name().toLowerCase();
+	}
+
+	private static long updatedRows(Object result) {
+		if (result instanceof Integer count) {
+			return count;
+		}
+		if (result instanceof int[] counts) {
+			long total = 0;
+			for (int count : counts) {
+				total += Math.max(count, 0);
+			}
+			return total;
+		}
+		return -1;
+	}
+
+	private static class Context {
+
+		private String endpoint = NONE;
+		private String repository = NONE;
+		private int requestStatements;
+		private Capture capture;
+	}
+
+	/**
+	 * Statements issued by one thread between {@link SqlMetrics#capture()} and
+	 * {@link #close()}. Nested captures each see the statements of their own
+	 * span.
+	 */
+	public static class Capture implements AutoCloseable {
+
+		private final Context context;
+		private final Capture parent;
+		private final List<String> repositoryMethods = new ArrayList<>();
+
+		private Capture(Context context, Capture parent) {
+			this.context = context;
+			this.parent = parent;
+		}
+
+		public int count() {
+			return repositoryMethods.size();
+		}
+
+		public int count(String repositoryMethod) {
+			return (int) repositoryMethods.stream().filter(repositoryMethod::equals).count();
+		}
+
+		/**
+		 * The repository method that issued each statement, in order, or
+		 * "none" for statements issued outside a repository.
+		 */
+		public List<String> repositoryMethods() {
+			return List.copyOf(repositoryMethods);
+		}
+
+		@Override
+		public void close() {
+			context.capture = parent;
+		}
+
+		private void record(String repository) {
+			repositoryMethods.add(repository);
+			if (parent != null) {
+				parent.record(repository);
+			}
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.devsuperior.dscatalog.config;
+
+import javax.sql.DataSource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Proxies the DataSource so every statement is recorded by {@link SqlMetrics},
+ * and tags statements with the repository method and the endpoint that issued
+ * them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.sql-metrics.enabled", havingValue = "true")
+public class SqlMetricsConfig {
+
+	@Value("${catalog.sql-metrics.percentile-histogram}")
+	private Boolean percentileHistogram;
+
+	@Bean
+	public SqlMetrics sqlMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+		return new SqlMetrics(meterRegistry.getIfAvailable(), percentileHistogram);
+	}
+
+	@Bean
+	public SqlMetricsFilter sqlMetricsFilter(SqlMetrics sqlMetrics) {
+		return new SqlMetricsFilter(sqlMetrics);
+	}
+
+	@Bean
+	FilterRegistrationBean<SqlMetricsFilter> sqlMetricsFilterRegistration(SqlMetricsFilter sqlMetricsFilter) {
+		FilterRegistrationBean<SqlMetricsFilter> bean = new FilterRegistrationBean<>(sqlMetricsFilter);
+		bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+		return bean;
+	}
+
+	@Bean
+	WebMvcConfigurer sqlMetricsInterceptor(SqlMetricsFilter sqlMetricsFilter) {
+		return new WebMvcConfigurer() {
+
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(sqlMetricsFilter);
+			}
+		};
+	}
+
+	@Bean
+	static BeanPostProcessor sqlMetricsDataSourceProxy(ObjectProvider<SqlMetrics> sqlMetrics) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+					SqlMetrics metrics = sqlMetrics.getObject();
+					return ProxyDataSourceBuilder.create(beanName, dataSource)
+							.listener(metrics)
+							.proxyResultSet(metrics)
+							.buildProxy();
+				}
+				return bean;
+			}
+		};
+	}
+
+	@Bean
+	static BeanPostProcessor sqlMetricsRepositoryTagging() {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+					factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+							(proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+									repositoryTagging(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+				}
+				return bean;
+			}
+		};
+	}
+
+	private static MethodInterceptor repositoryTagging(String repositoryName) {
+		return invocation -> {
+			String previous = SqlMetrics.enterRepository(repositoryName + "." + invocation.getMethod().getName());
+			try {
+				return invocation.proceed();
+			}
+			finally {
+				SqlMetrics.exitRepository(previous);
+			}
+		};
+	}
+}
@@ -0,0 +1,53 @@
+package com.devsuperior.dscatalog.config;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Names the endpoint the statements of a request are tagged with. The filter
+ * opens the request scope, so statements issued by the security chains are
+ * counted too, and the interceptor narrows the name to the matched handler
+ * pattern. Authorization server endpoints are served by filters and keep
+ * their path; anything else that never reaches a handler is UNKNOWN.
+ */
+public class SqlMetricsFilter extends OncePerRequestFilter implements HandlerInterceptor {
+
+	private final SqlMetrics metrics;
+
+	public SqlMetricsFilter(SqlMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		String endpoint = request.getMethod() + " " + (AuthorizationServerConfig.ENDPOINT_PATHS.contains(path) ? path : "UNKNOWN");
+		String previous = SqlMetrics.enterEndpoint(endpoint);
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			metrics.exitEndpoint(previous);
+		}
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		// error dispatches keep the endpoint of the request that failed
+		if (pattern != null && request.getDispatcherType() == DispatcherType.REQUEST) {
+			SqlMetrics.updateEndpoint(request.getMethod() + " " + pattern);
+		}
+		return true;
+	}
+}
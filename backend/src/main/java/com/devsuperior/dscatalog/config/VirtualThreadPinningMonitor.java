@@ -0,0 +1,85 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Streams jdk.VirtualThreadPinned JFR events, recorded when a virtual thread
+ * blocks while it cannot unmount (inside synchronized or a native frame) for
+ * longer than the threshold. Every event is timed; each distinct stack is
+ * logged once, so the offending code path shows up without flooding the log.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+	private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+	private static final String EVENT = "jdk.VirtualThreadPinned";
+	private static final int MAX_LOGGED_STACKS = 1000;
+	private static final int MAX_FRAMES = 20;
+
+	private final Duration threshold;
+	private final Timer pinned;
+	private final Set<String> loggedStacks = ConcurrentHashMap.newKeySet();
+	private volatile RecordingStream stream;
+
+	public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry registry) {
+		this.threshold = threshold;
+		this.pinned = registry == null ? null : Timer.builder("jvm.threads.virtual.pinned")
+				.description("Time virtual threads spent blocked while pinned to their carrier")
+				.register(registry);
+	}
+
+	@Override
+	public void start() {
+		stream = new RecordingStream();
+		stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+		stream.onEvent(EVENT, this::onPinned);
+		stream.startAsync();
+		logger.info("Reporting virtual threads pinned for more than {} ms", threshold.toMillis());
+	}
+
+	@Override
+	public void stop() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return stream != null;
+	}
+
+	private void onPinned(RecordedEvent event) {
+		if (pinned != null) {
+			pinned.record(event.getDuration());
+		}
+		if (event.getStackTrace() == null) {
+			return;
+		}
+		String stack = event.getStackTrace().getFrames().stream()
+				.limit(MAX_FRAMES)
+				.map(VirtualThreadPinningMonitor::format)
+				.collect(Collectors.joining("\n\tat ", "\tat ", ""));
+		if (loggedStacks.size() < MAX_LOGGED_STACKS && loggedStacks.add(stack)) {
+			logger.warn("Virtual thread pinned for {} ms\n{}", event.getDuration().toMillis(), stack);
+		}
+	}
+
+	private static String format(RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+	}
+}
@@ -0,0 +1,24 @@
+package com.devsuperior.dscatalog.dto;
+
+public class ImportErrorDTO {
+	
+	private Long row;
+	private String message;
+	
+	public ImportErrorDTO() {
+		
+	}
+
+	public ImportErrorDTO(Long row, String message) {
+		this.row = row;
+		this.message = message;
+	}
+
+	public Long getRow() {
+		return row;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+}
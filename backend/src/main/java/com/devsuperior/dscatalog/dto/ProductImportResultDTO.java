@@ -0,0 +1,55 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductImportResultDTO {
+	
+	private long received;
+	private long imported;
+	private long failed;
+	private boolean errorsTruncated;
+	private List<ImportErrorDTO> errors = new ArrayList<>();
+	
+	public ProductImportResultDTO() {
+		
+	}
+
+	public long getReceived() {
+		return received;
+	}
+
+	public void setReceived(long received) {
+		this.received = received;
+	}
+
+	public long getImported() {
+		return imported;
+	}
+
+	public void setImported(long imported) {
+		this.imported = imported;
+	}
+
+	public long getFailed() {
+		return failed;
+	}
+
+	public boolean isErrorsTruncated() {
+		return errorsTruncated;
+	}
+
+	public List<ImportErrorDTO> getErrors() {
+		return errors;
+	}
+	
+	public void addError(long row, String message, int maxErrors) {
+		failed++;
+		if (errors.size() < maxErrors) {
+			errors.add(new ImportErrorDTO(row, message));
+		}
+		else {
+			errorsTruncated = true;
+		}
+	}
+}
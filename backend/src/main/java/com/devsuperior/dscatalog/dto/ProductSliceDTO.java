@@ -0,0 +1,39 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductSliceDTO {
+	
+	private List<ProductDTO> content = new ArrayList<>();
+	private Integer size;
+	private boolean hasNext;
+	private String nextCursor;
+	
+	public ProductSliceDTO() {
+		
+	}
+
+	public ProductSliceDTO(List<ProductDTO> content, Integer size, boolean hasNext, String nextCursor) {
+		this.content = content;
+		this.size = size;
+		this.hasNext = hasNext;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<ProductDTO> getContent() {
+		return content;
+	}
+
+	public Integer getSize() {
+		return size;
+	}
+
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+}
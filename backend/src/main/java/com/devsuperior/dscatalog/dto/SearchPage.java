@@ -0,0 +1,57 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.devsuperior.dscatalog.services.search.CountStrategy;
+
+/**
+ * Page that reports how its total was obtained. When the total is unknown
+ * ({@link CountStrategy#NONE}) totalElements and totalPages are -1 and only
+ * hasNext is meaningful.
+ */
+public class SearchPage<T> extends PageImpl<T> {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final Long total;
+	private final boolean hasNext;
+	private final CountStrategy countStrategy;
+	
+	public SearchPage(List<T> content, Pageable pageable, Long total, boolean hasNext, CountStrategy countStrategy) {
+		super(content, pageable, total != null ? total : knownElements(content, pageable, hasNext));
+		this.total = total;
+		this.hasNext = hasNext;
+		this.countStrategy = countStrategy;
+	}
+	
+	public SearchPage(List<T> content, SearchPage<?> source) {
+		this(content, source.getPageable(), source.total, source.hasNext, source.countStrategy);
+	}
+	
+	@Override
+	public boolean hasNext() {
+		return hasNext;
+	}
+	
+	@Override
+	public long getTotalElements() {
+		return total != null ? super.getTotalElements() : -1L;
+	}
+	
+	@Override
+	public int getTotalPages() {
+		return total != null ? super.getTotalPages() : -1;
+	}
+	
+	public CountStrategy getCountStrategy() {
+		return countStrategy;
+	}
+	
+	private static long knownElements(List<?> content, Pageable pageable, boolean hasNext) {
+		long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+		return offset + content.size() + (hasNext ? 1 : 0);
+	}
+}
@@ -0,0 +1,147 @@
+package com.devsuperior.dscatalog.entities;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "tb_oauth2_authorization", indexes = {
+		@Index(name = "ux_oauth2_authorization_access_token", columnList = "access_token_hash", unique = true),
+		@Index(name = "ix_oauth2_authorization_expires_at", columnList = "access_token_expires_at")})
+public class Authorization {
+	
+	@Id
+	@Column(length = 100)
+	private String id;
+	
+	@Column(nullable = false, length = 100)
+	private String registeredClientId;
+	
+	@Column(nullable = false, length = 200)
+	private String principalName;
+	
+	@Column(nullable = false, length = 100)
+	private String authorizationGrantType;
+	
+	@Column(length = 1000)
+	private String authorizedScopes;
+	
+	@Column(columnDefinition = "TEXT")
+	private String accessTokenValue;
+	
+	@Column(name = "access_token_hash", length = 64)
+	private String accessTokenHash;
+	
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant accessTokenIssuedAt;
+	
+	@Column(name = "access_token_expires_at", columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant accessTokenExpiresAt;
+	
+	private boolean accessTokenInvalidated;
+	
+	public Authorization() {
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getRegisteredClientId() {
+		return registeredClientId;
+	}
+
+	public void setRegisteredClientId(String registeredClientId) {
+		this.registeredClientId = registeredClientId;
+	}
+
+	public String getPrincipalName() {
+		return principalName;
+	}
+
+	public void setPrincipalName(String principalName) {
+		this.principalName = principalName;
+	}
+
+	public String getAuthorizationGrantType() {
+		return authorizationGrantType;
+	}
+
+	public void setAuthorizationGrantType(String authorizationGrantType) {
+		this.authorizationGrantType = authorizationGrantType;
+	}
+
+	public String getAuthorizedScopes() {
+		return authorizedScopes;
+	}
+
+	public void setAuthorizedScopes(String authorizedScopes) {
+		this.authorizedScopes = authorizedScopes;
+	}
+
+	public String getAccessTokenValue() {
+		return accessTokenValue;
+	}
+
+	public void setAccessTokenValue(String accessTokenValue) {
+		this.accessTokenValue = accessTokenValue;
+	}
+
+	public String getAccessTokenHash() {
+		return accessTokenHash;
+	}
+
+	public void setAccessTokenHash(String accessTokenHash) {
+		this.accessTokenHash = accessTokenHash;
+	}
+
+	public Instant getAccessTokenIssuedAt() {
+		return accessTokenIssuedAt;
+	}
+
+	public void setAccessTokenIssuedAt(Instant accessTokenIssuedAt) {
+		this.accessTokenIssuedAt = accessTokenIssuedAt;
+	}
+
+	public Instant getAccessTokenExpiresAt() {
+		return accessTokenExpiresAt;
+	}
+
+	public void setAccessTokenExpiresAt(Instant accessTokenExpiresAt) {
+		this.accessTokenExpiresAt = accessTokenExpiresAt;
+	}
+
+	public boolean isAccessTokenInvalidated() {
+		return accessTokenInvalidated;
+	}
+
+	public void setAccessTokenInvalidated(boolean accessTokenInvalidated) {
+		this.accessTokenInvalidated = accessTokenInvalidated;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Authorization other = (Authorization) obj;
+		return Objects.equals(id, other.id);
+	}
+}
@@ -0,0 +1,160 @@
+package com.devsuperior.dscatalog.entities;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "tb_email_outbox", indexes = {
+		@Index(name = "ix_email_outbox_status_next_attempt", columnList = "status, next_attempt_at")})
+public class EmailOutbox {
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	@Column(nullable = false)
+	private String recipient;
+	
+	@Column(nullable = false)
+	private String subject;
+	
+	@Column(columnDefinition = "TEXT", nullable = false)
+	private String body;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private EmailStatus status;
+	
+	private int attempts;
+	
+	@Column(name = "next_attempt_at", columnDefinition = "TIMESTAMP WITHOUT TIME ZONE", nullable = false)
+	private Instant nextAttemptAt;
+	
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE", nullable = false)
+	private Instant createdAt;
+	
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant sentAt;
+	
+	@Column(length = 500)
+	private String lastError;
+	
+	public EmailOutbox() {
+	}
+	
+	public EmailOutbox(String recipient, String subject, String body, Instant now) {
+		this.recipient = recipient;
+		this.subject = subject;
+		this.body = body;
+		this.status = EmailStatus.PENDING;
+		this.nextAttemptAt = now;
+		this.createdAt = now;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getRecipient() {
+		return recipient;
+	}
+
+	public void setRecipient(String recipient) {
+		this.recipient = recipient;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	public void setSubject(String subject) {
+		this.subject = subject;
+	}
+
+	public String getBody() {
+		return body;
+	}
+
+	public void setBody(String body) {
+		this.body = body;
+	}
+
+	public EmailStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(EmailStatus status) {
+		this.status = status;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public Instant getNextAttemptAt() {
+		return nextAttemptAt;
+	}
+
+	public void setNextAttemptAt(Instant nextAttemptAt) {
+		this.nextAttemptAt = nextAttemptAt;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Instant createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public Instant getSentAt() {
+		return sentAt;
+	}
+
+	public void setSentAt(Instant sentAt) {
+		this.sentAt = sentAt;
+	}
+
+	public String getLastError() {
+		return lastError;
+	}
+
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		EmailOutbox other = (EmailOutbox) obj;
+		return Objects.equals(id, other.id);
+	}
+}
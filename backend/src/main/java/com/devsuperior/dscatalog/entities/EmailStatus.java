@@ -0,0 +1,7 @@
+package com.devsuperior.dscatalog.entities;
+
+public enum EmailStatus {
+	PENDING,
+	SENT,
+	FAILED
+}
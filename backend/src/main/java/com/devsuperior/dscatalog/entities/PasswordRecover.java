@@ -8,10 +8,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "tb_password_recover")
+@Table(name = "tb_password_recover", indexes = {
+		@Index(name = "ux_password_recover_token", columnList = "token", unique = true),
+		@Index(name = "ix_password_recover_expiration", columnList = "expiration")})
 public class PasswordRecover {
 	
 	@Id
@@ -24,6 +27,7 @@ public class PasswordRecover {
 	private String email;
 	@Column(nullable = false)
 	private Instant expiration;
+	private boolean used;
 	
 	
 	public PasswordRecover() {
@@ -68,6 +72,14 @@ public class PasswordRecover {
 		this.expiration = expiration;
 	}
 	
+	public boolean isUsed() {
+		return used;
+	}
+	
+	public void setUsed(boolean used) {
+		this.used = used;
+	}
+	
 	@Override
 	public int hashCode() {
 		return Objects.hash(email);
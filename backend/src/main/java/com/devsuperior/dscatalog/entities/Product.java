@@ -5,6 +5,8 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+
 import com.devsuperior.dscatalog.projections.IdProjection;
 
 import jakarta.persistence.Column;
@@ -12,15 +14,23 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "tb_product")
+@NamedEntityGraph(name = Product.WITH_CATEGORIES, attributeNodes = @NamedAttributeNode("categories"))
+@Table(name = "tb_product", indexes = @Index(name = "ix_product_name_id", columnList = "name, id"))
 public class Product implements IdProjection<Long>{
 	
+	public static final String WITH_CATEGORIES = "Product.withCategories";
+	
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
@@ -34,7 +44,11 @@ public class Product implements IdProjection<Long>{
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE") // date iso 8601
 	private Instant date;
 	
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant updatedAt;
+	
 	@ManyToMany
+	@BatchSize(size = 100)
 	@JoinTable(name = "tb_product_category",
 		joinColumns = @JoinColumn(name = "product_id"),
 		inverseJoinColumns = @JoinColumn(name = "category_id"))
@@ -102,9 +116,19 @@ public class Product implements IdProjection<Long>{
 		this.date = date;
 	}
 
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
 	public Set<Category> getCategories() {
 		return categories;
 	}
+	
+	@PrePersist
+	@PreUpdate
+	public void touch() {
+		updatedAt = Instant.now();
+	}
 
 	@Override
 	public int hashCode() {
@@ -0,0 +1,16 @@
+package com.devsuperior.dscatalog.projections;
+
+import java.time.Instant;
+
+public interface ProductExportProjection extends IdProjection<Long> {
+	
+	String getName();
+	String getDescription();
+	Double getPrice();
+	String getImgUrl();
+	Instant getDate();
+	Instant getUpdatedAt();
+	Long getCategoryId();
+	String getCategoryName();
+
+}
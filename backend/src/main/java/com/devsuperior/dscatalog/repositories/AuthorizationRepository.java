@@ -0,0 +1,28 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.devsuperior.dscatalog.entities.Authorization;
+
+@Repository
+public interface AuthorizationRepository extends JpaRepository<Authorization, String> {
+	
+	Optional<Authorization> findByAccessTokenHash(String accessTokenHash);
+	
+	@Modifying
+	@Query(nativeQuery = true, value = """
+			DELETE FROM tb_oauth2_authorization
+			WHERE id IN (
+				SELECT id FROM tb_oauth2_authorization
+				WHERE access_token_expires_at < :before
+				LIMIT :limit)
+			""")
+	int deleteExpired(Instant before, Integer limit);
+
+}
@@ -0,0 +1,43 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import com.devsuperior.dscatalog.entities.EmailStatus;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+	
+	// lock timeout -2 renders FOR UPDATE SKIP LOCKED, so dispatchers on other instances claim other rows
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("SELECT obj FROM EmailOutbox obj WHERE obj.status = :status AND obj.nextAttemptAt <= :now ORDER BY obj.nextAttemptAt")
+	List<EmailOutbox> findDueForUpdate(EmailStatus status, Instant now, Pageable pageable);
+	
+	@Modifying
+	@Query("UPDATE EmailOutbox obj SET obj.status = :status, obj.sentAt = :sentAt, obj.lastError = NULL WHERE obj.id IN :ids")
+	int markSent(List<Long> ids, EmailStatus status, Instant sentAt);
+	
+	@Modifying
+	@Query(nativeQuery = true, value = """
+			DELETE FROM tb_email_outbox
+			WHERE id IN (
+				SELECT id FROM tb_email_outbox
+				WHERE status <> 'PENDING' AND created_at < :before
+				LIMIT :limit)
+			""")
+	int deleteFinishedBefore(Instant before, Integer limit);
+
+}
@@ -1,9 +1,10 @@
 package com.devsuperior.dscatalog.repositories;
 
 import java.time.Instant;
-import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -12,7 +13,21 @@ import com.devsuperior.dscatalog.entities.PasswordRecover;
 @Repository
 public interface PasswordRecoverRepository extends JpaRepository<PasswordRecover, Long> {
 	
-	@Query("SELECT obj FROM PasswordRecover obj WHERE obj.token = :token AND obj.expiration > :now")
-	List<PasswordRecover> searchValidTokens(String token, Instant now);
+	Optional<PasswordRecover> findByToken(String token);
+	
+	// the row lock taken here makes a concurrent second use see used = true and match nothing
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE PasswordRecover obj SET obj.used = true WHERE obj.token = :token AND obj.used = false AND obj.expiration > :now")
+	int consumeToken(String token, Instant now);
+	
+	@Modifying
+	@Query(nativeQuery = true, value = """
+			DELETE FROM tb_password_recover
+			WHERE id IN (
+				SELECT id FROM tb_password_recover
+				WHERE expiration < :before
+				LIMIT :limit)
+			""")
+	int deleteExpired(Instant before, Integer limit);
 
 }
@@ -1,18 +1,30 @@
 package com.devsuperior.dscatalog.repositories;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
+import com.devsuperior.dscatalog.projections.ProductExportProjection;
 import com.devsuperior.dscatalog.projections.ProductProjection;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
 	@Query(nativeQuery = true, value = """
 			SELECT * FROM (
@@ -34,9 +46,88 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 			""")
 	Page<ProductProjection>searchProduct(List<Long> categoryIds, String name, Pageable pageable);
 	
-	@Query("SELECT obj FROM Product obj JOIN FETCH obj.categories "
+	@Query(nativeQuery = true, value = """
+			SELECT * FROM (
+			SELECT DISTINCT tb_product.id, tb_product.name
+			FROM tb_product
+			INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+			WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
+			AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+			) AS tb_result
+			""")
+	Slice<ProductProjection> searchProductSlice(List<Long> categoryIds, String name, Pageable pageable);
+	
+	@Query(nativeQuery = true, value = """
+			SELECT COUNT(*) FROM (
+			SELECT DISTINCT tb_product.id, tb_product.name
+			FROM tb_product
+			INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+			WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
+			AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+			) AS tb_result
+			""")
+	Long countProduct(List<Long> categoryIds, String name);
+	
+	@Query(nativeQuery = true, value = """
+			SELECT DISTINCT tb_product.id, tb_product.name
+			FROM tb_product
+			INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+			WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
+			AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+			AND (tb_product.name > :afterName OR (tb_product.name = :afterName AND tb_product.id > :afterId))
+			ORDER BY tb_product.name, tb_product.id
+			LIMIT :limit
+			""")
+	List<ProductProjection> searchProductAfterName(List<Long> categoryIds, String name, String afterName, Long afterId, Integer limit);
+	
+	@Query(nativeQuery = true, value = """
+			SELECT DISTINCT tb_product.id, tb_product.name
+			FROM tb_product
+			INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+			WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
+			AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+			AND tb_product.id > :afterId
+			ORDER BY tb_product.id
+			LIMIT :limit
+			""")
+	List<ProductProjection> searchProductAfterId(List<Long> categoryIds, String name, Long afterId, Integer limit);
+	
+	@EntityGraph(Product.WITH_CATEGORIES)
+	Optional<Product> findWithCategoriesById(Long id);
+	
+	@Query("SELECT obj FROM Product obj LEFT JOIN FETCH obj.categories "
 			+ "WHERE obj.id IN :productIds")
 	List<Product> searchProductsWithCategories(List<Long> productIds);
+	
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+	@Query("SELECT obj.id AS id, obj.name AS name, obj.description AS description, obj.price AS price, "
+			+ "obj.imgUrl AS imgUrl, obj.date AS date, obj.updatedAt AS updatedAt, "
+			+ "cat.id AS categoryId, cat.name AS categoryName "
+			+ "FROM Product obj LEFT JOIN obj.categories cat "
+			+ "WHERE (:updatedSince IS NULL OR obj.updatedAt >= :updatedSince) "
+			+ "ORDER BY obj.id")
+	Stream<ProductExportProjection> streamForExport(Instant updatedSince);
+	
+	// the export carries category names, so a rename has to move updatedAt of every product in the category
+	@Modifying
+	@Query("UPDATE Product obj SET obj.updatedAt = :updatedAt "
+			+ "WHERE obj.id IN (SELECT p.id FROM Product p JOIN p.categories cat WHERE cat.id = :categoryId)")
+	int touchByCategory(Long categoryId, Instant updatedAt);
+	
+	@Query(nativeQuery = true, value = """
+			SELECT DISTINCT tb_product.id, tb_product.name
+			FROM tb_product
+			INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+			""")
+	Stream<ProductProjection> streamIndexableProducts();
+	
+	@Query(nativeQuery = true, value = """
+			SELECT tb_product_category.product_id AS productId, tb_product_category.category_id AS categoryId
+			FROM tb_product_category
+			""")
+	Stream<ProductCategoryProjection> streamProductCategories();
 
 
 }
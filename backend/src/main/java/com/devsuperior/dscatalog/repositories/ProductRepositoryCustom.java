@@ -0,0 +1,13 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.SearchPage;
+
+public interface ProductRepositoryCustom {
+
+	SearchPage<ProductDTO> searchProductPage(List<Long> categoryIds, String name, Pageable pageable);
+}
@@ -0,0 +1,134 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.SearchPage;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+import com.devsuperior.dscatalog.services.search.CountStrategy;
+
+/**
+ * Product search in a single round-trip: the inner query selects the page of
+ * matching products together with COUNT(*) OVER(), which is evaluated before
+ * LIMIT and so carries the total of the whole result, and the outer query
+ * joins the categories of just those products. Rows are mapped straight into
+ * DTOs, one product spanning as many consecutive rows as it has categories.
+ * The category filter is an IN semi-join rather than a correlated EXISTS,
+ * which H2 evaluates row by row.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+	private static final Map<String, String> SORT_COLUMNS = Map.of(
+			"id", "id",
+			"name", "name",
+			"price", "price",
+			"date", "date");
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Override
+	public SearchPage<ProductDTO> searchProductPage(List<Long> categoryIds, String name, Pageable pageable) {
+		MapSqlParameterSource params = new MapSqlParameterSource("name", name);
+		StringBuilder where = new StringBuilder("""
+				WHERE LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%'))
+				AND tb_product.id IN (SELECT tb_product_category.product_id FROM tb_product_category
+				""");
+		if (!categoryIds.isEmpty()) {
+			where.append("WHERE tb_product_category.category_id IN (:categoryIds)\n");
+			params.addValue("categoryIds", categoryIds);
+		}
+		where.append(")\n");
+
+		String orderBy = orderBy(pageable.getSort());
+		StringBuilder sql = new StringBuilder("""
+				SELECT tb_page.*, tb_category.id AS category_id, tb_category.name AS category_name
+				FROM (
+				SELECT tb_product.id, tb_product.name, tb_product.description, tb_product.price,
+				tb_product.img_url, tb_product.date, COUNT(*) OVER() AS total
+				FROM tb_product
+				""");
+		sql.append(where).append("ORDER BY ").append(orderBy.replace("{t}", "tb_product")).append('\n');
+		if (pageable.isPaged()) {
+			sql.append("LIMIT :limit OFFSET :offset\n");
+			params.addValue("limit", pageable.getPageSize());
+			params.addValue("offset", pageable.getOffset());
+		}
+		sql.append("""
+				) AS tb_page
+				LEFT JOIN tb_product_category ON tb_product_category.product_id = tb_page.id
+				LEFT JOIN tb_category ON tb_category.id = tb_product_category.category_id
+				""");
+		sql.append("ORDER BY ").append(orderBy.replace("{t}", "tb_page")).append(", tb_category.id");
+
+		PageMapper mapper = new PageMapper();
+		jdbcTemplate.query(sql.toString(), params, mapper);
+
+		long total;
+		if (mapper.total != null) {
+			total = mapper.total;
+		}
+		else if (pageable.isPaged() && pageable.getOffset() > 0) {
+			// past the last page there are no rows to carry the window count
+			total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product\n" + where, params, Long.class);
+		}
+		else {
+			total = 0L;
+		}
+		boolean hasNext = pageable.isPaged() && pageable.getOffset() + mapper.content.size() < total;
+		return new SearchPage<>(mapper.content, pageable, total, hasNext, CountStrategy.EXACT);
+	}
+
+	private static String orderBy(Sort sort) {
+		List<String> terms = new ArrayList<>();
+		boolean byId = false;
+		for (Sort.Order order : sort) {
+			String column = SORT_COLUMNS.get(order.getProperty());
+			if (column == null) {
+				throw new BadRequestException("Invalid sort property: " + order.getProperty());
+			}
+			byId |= "id".equals(column);
+			terms.add("{t}." + column + (order.isAscending() ? " ASC" : " DESC"));
+		}
+		if (!byId) {
+			terms.add("{t}.id ASC");
+		}
+		return String.join(", ", terms);
+	}
+
+	private static class PageMapper implements RowCallbackHandler {
+
+		private final List<ProductDTO> content = new ArrayList<>();
+		private Long total;
+		private ProductDTO current;
+
+		@Override
+		public void processRow(ResultSet rs) throws SQLException {
+			long id = rs.getLong("id");
+			if (current == null || current.getId() != id) {
+				Timestamp date = rs.getTimestamp("date");
+				current = new ProductDTO(id, rs.getString("name"), rs.getString("description"),
+						rs.getObject("price", Double.class), rs.getString("img_url"), date != null ? date.toInstant() : null);
+				content.add(current);
+				total = rs.getLong("total");
+			}
+			long categoryId = rs.getLong("category_id");
+			if (!rs.wasNull()) {
+				current.getCategories().add(new CategoryDTO(categoryId, rs.getString("category_name")));
+			}
+		}
+	}
+}
@@ -1,10 +1,18 @@
 package com.devsuperior.dscatalog.resources;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,11 +24,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportResultDTO;
+import com.devsuperior.dscatalog.dto.ProductSliceDTO;
+import com.devsuperior.dscatalog.services.ProductJsonCache;
+import com.devsuperior.dscatalog.services.ProductJsonCache.CachedJson;
+import com.devsuperior.dscatalog.services.ProductExportService;
+import com.devsuperior.dscatalog.services.ProductFileFormat;
+import com.devsuperior.dscatalog.services.ProductImportService;
 import com.devsuperior.dscatalog.services.ProductService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -30,6 +48,15 @@ public class ProductResource {
 	@Autowired
 	private ProductService service;
 	
+	@Autowired
+	private ProductJsonCache jsonCache;
+	
+	@Autowired
+	private ProductExportService exportService;
+	
+	@Autowired
+	private ProductImportService importService;
+	
 	/*
 	@GetMapping
 	public ResponseEntity<Page<ProductDTO>> findAll(
@@ -58,10 +85,62 @@ public class ProductResource {
 	}
 	
 	
+	@GetMapping(params = "after")
+	public ResponseEntity<ProductSliceDTO> findAllAfter(
+			@RequestParam(value = "categoryId", defaultValue = "") String categoryId, 
+			@RequestParam(value = "name", defaultValue = "")  String name, 
+			@RequestParam(value = "after") String after, 
+			@RequestParam(value = "size", defaultValue = "12") Integer size, 
+			@RequestParam(value = "sort", defaultValue = "name") String sort){
+		ProductSliceDTO slice = service.findAllAfter(categoryId, name, after, size, sort);
+		return ResponseEntity.ok().body(slice);
+	}
+	
+	
+	@GetMapping(path = "/batch")
+	public ResponseEntity<byte[]> findBatch(@RequestParam(value = "ids") List<Long> ids){
+		byte[] body = jsonCache.getBatch(new LinkedHashSet<>(ids));
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+	}
+	
+	@PostMapping(path = "/batch")
+	public ResponseEntity<byte[]> findBatchPost(@RequestBody List<Long> ids){
+		byte[] body = jsonCache.getBatch(new LinkedHashSet<>(ids));
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+	}
+	
+	
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+	@GetMapping(path = "/export")
+	public void export(
+			@RequestParam(value = "format", defaultValue = "ndjson") String format, 
+			@RequestParam(value = "updatedSince", required = false) Instant updatedSince, 
+			HttpServletResponse response) throws IOException {
+		ProductFileFormat exportFormat = ProductFileFormat.of(format);
+		response.setContentType(exportFormat.getContentType());
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + exportFormat.getExtension() + "\"");
+		exportService.export(exportFormat, updatedSince, response.getOutputStream());
+	}
+	
+	
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+	@PostMapping(path = "/import")
+	public ResponseEntity<ProductImportResultDTO> importProducts(
+			@RequestParam(value = "format", defaultValue = "ndjson") String format, 
+			HttpServletRequest request) throws IOException {
+		ProductImportResultDTO result = importService.importProducts(ProductFileFormat.of(format), request.getInputStream());
+		return ResponseEntity.ok().body(result);
+	}
+	
+	
 	@GetMapping(path = "/{id}")
-	public ResponseEntity<ProductDTO> findById(@PathVariable Long id){
-		ProductDTO dto = service.findById(id);
-		return ResponseEntity.ok().body(dto);
+	public ResponseEntity<byte[]> findById(@PathVariable Long id, WebRequest request){
+		CachedJson json = jsonCache.get(id);
+		if (request.checkNotModified(json.getEtag())) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(json.getEtag()).build();
+		}
+		return ResponseEntity.ok().eTag(json.getEtag()).contentType(MediaType.APPLICATION_JSON).body(json.getBody());
 	}
 	
 	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
@@ -1,11 +1,14 @@
 package com.devsuperior.dscatalog.services;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,7 +16,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.devsuperior.dscatalog.config.CacheConfig;
 import com.devsuperior.dscatalog.dto.EmailDTO;
 import com.devsuperior.dscatalog.dto.NewPasswordDTO;
 import com.devsuperior.dscatalog.entities.PasswordRecover;
@@ -25,12 +30,17 @@ import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 @Service
 public class AuthService {
 
+	private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
 	@Value("${email.password-recover.token.minutes}")
 	private Long tokenMinutes;
 
 	@Value("${email.password-recover.uri}")
 	private String recoverUri;
 
+	@Value("${email.password-recover.sweep-chunk-size}")
+	private Integer sweepChunkSize;
+
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 
@@ -43,6 +53,9 @@ public class AuthService {
 	@Autowired
 	private EmailService emailService;
 
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
 	@Transactional
 	public void createRecoverToken(EmailDTO body) {
 
@@ -64,23 +77,42 @@ public class AuthService {
 
 	}
 
+	@CacheEvict(cacheNames = CacheConfig.USER_DETAILS, allEntries = true)
 	@Transactional
 	public void saveNewPassword(NewPasswordDTO body) {
-		List<PasswordRecover> result = passwordRecoverRepository.searchValidTokens(body.getToken(), Instant.now());
-		if (result.size() == 0) {
+		if (passwordRecoverRepository.consumeToken(body.getToken(), Instant.now()) == 0) {
 			throw new ResourceNotFoundException("Token inválido");
 		}
-		User user = userRepository.findByEmail(result.get(0).getEmail());
+		PasswordRecover recover = passwordRecoverRepository.findByToken(body.getToken()).orElseThrow();
+		User user = userRepository.findByEmail(recover.getEmail());
 		user.setPassword(passwordEncoder.encode(body.getPassword()));
 		user = userRepository.save(user);
 	}
 
+	@Scheduled(fixedDelayString = "${email.password-recover.sweep-interval-ms}")
+	public void purgeExpiredTokens() {
+		Instant before = Instant.now();
+		int total = 0;
+		int deleted;
+		do {
+			deleted = transactionTemplate.execute(status -> passwordRecoverRepository.deleteExpired(before, sweepChunkSize));
+			total += deleted;
+		}
+		while (deleted == sweepChunkSize);
+		if (total > 0) {
+			logger.info("Removed {} expired password recover tokens", total);
+		}
+	}
+
 	protected User authenticated() {
+		return userRepository.findByEmail(authenticatedUsername());
+	}
+
+	public String authenticatedUsername() {
 		try {
 			Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 			Jwt jwtPrincipal = (Jwt) authentication.getPrincipal();
-			String username = jwtPrincipal.getClaim("username");
-			return userRepository.findByEmail(username);
+			return jwtPrincipal.getClaim("username");
 		}
 
 		catch (Exception e) {
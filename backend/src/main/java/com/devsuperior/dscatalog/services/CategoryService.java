@@ -1,17 +1,27 @@
 package com.devsuperior.dscatalog.services;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.config.CacheConfig;
+import com.devsuperior.dscatalog.config.ReplicaRouter;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 
@@ -23,6 +33,12 @@ public class CategoryService {
 	@Autowired
 	private CategoryRepository repository;
 	
+	@Autowired
+	private ProductRepository productRepository;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
 	
 	/*
 	@Transactional(readOnly = true)
@@ -32,18 +48,22 @@ public class CategoryService {
 	}
 	*/
 	
+	// cached until the next change, so loaded from the primary rather than a replica that may be behind
+	@Cacheable(CacheConfig.CATEGORIES)
 	@Transactional(readOnly = true)
 	public List<CategoryDTO> findAll(){
-		List<Category> categoryList = repository.findAll();
+		List<Category> categoryList = ReplicaRouter.readFromPrimary(() -> repository.findAll());
 		return categoryList.stream().map(x -> new CategoryDTO(x)).toList();
 	}
 	
+	@Cacheable(cacheNames = CacheConfig.CATEGORY, key = "#id")
 	@Transactional(readOnly = true)
 	public CategoryDTO findById(Long id){
-		Optional<Category> category = repository.findById(id);
+		Optional<Category> category = ReplicaRouter.readFromPrimary(() -> repository.findById(id));
 		return new CategoryDTO(category.orElseThrow(() -> new ResourceNotFoundException("Entity not found")));
 	}
 	
+	@CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
 	@Transactional
 	public CategoryDTO insert(CategoryDTO dto) {
 		Category category = new Category();
@@ -52,12 +72,17 @@ public class CategoryService {
 		return new CategoryDTO(category);
 	}
 	
+	@Caching(
+		evict = @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true),
+		put = @CachePut(cacheNames = CacheConfig.CATEGORY, key = "#id"))
 	@Transactional
 	public CategoryDTO update(Long id, CategoryDTO dto) {
 		try {
 			Category entity = repository.getReferenceById(id);
 			entity.setName(dto.getName());
 			entity = repository.save(entity);
+			productRepository.touchByCategory(id, Instant.now());
+			eventPublisher.publishEvent(new CategoryChangedEvent(id, false));
 			return new CategoryDTO(entity);
 		}
 		catch(EntityNotFoundException e) {
@@ -65,6 +90,9 @@ public class CategoryService {
 		}
 	}
 
+	@Caching(evict = {
+		@CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true),
+		@CacheEvict(cacheNames = CacheConfig.CATEGORY, key = "#id")})
 	@Transactional(propagation = Propagation.SUPPORTS)
 	public void delete(Long id) {
 		if (!repository.existsById(id)) {
@@ -72,6 +100,7 @@ public class CategoryService {
 		}
 		try {
 			repository.deleteById(id);    		
+			eventPublisher.publishEvent(new CategoryChangedEvent(id, true));
 		}
 		catch (DataIntegrityViolationException e) {
 			throw new DatabaseException("Falha de integridade referencial");
@@ -0,0 +1,269 @@
+package com.devsuperior.dscatalog.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import com.devsuperior.dscatalog.entities.EmailStatus;
+import com.devsuperior.dscatalog.repositories.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Drains tb_email_outbox. Due rows are claimed with SKIP LOCKED and leased by
+ * pushing next_attempt_at forward, so the SMTP round-trip happens outside any
+ * transaction and a crashed instance's rows are picked up again once the
+ * lease runs out. Each claimed batch is split across a few sender threads,
+ * and each of them sends its share over a single SMTP connection. Failed
+ * messages are retried with exponential backoff until max-attempts.
+ */
+@Service
+public class EmailOutboxDispatcher implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+	@Value("${spring.mail.username}")
+	private String emailFrom;
+
+	@Value("${email.outbox.batch-size}")
+	private Integer batchSize;
+
+	@Value("${email.outbox.connections}")
+	private Integer connections;
+
+	@Value("${email.outbox.max-attempts}")
+	private Integer maxAttempts;
+
+	@Value("${email.outbox.initial-backoff-seconds}")
+	private Long initialBackoffSeconds;
+
+	@Value("${email.outbox.max-backoff-seconds}")
+	private Long maxBackoffSeconds;
+
+	@Value("${email.outbox.lease-seconds}")
+	private Long leaseSeconds;
+
+	@Value("${email.outbox.retention-days}")
+	private Long retentionDays;
+
+	@Value("${email.outbox.purge-chunk-size}")
+	private Integer purgeChunkSize;
+
+	@Autowired
+	private EmailOutboxRepository repository;
+
+	@Autowired
+	private JavaMailSender mailSender;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> meterRegistry;
+
+	private ExecutorService executor;
+	private Timer sendSuccess;
+	private Timer sendFailure;
+	private Timer delivery;
+
+	// platform threads: Angus SMTPTransport reads server replies inside synchronized methods, which pins virtual threads
+	@PostConstruct
+	public void init() {
+		AtomicInteger sequence = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(connections, runnable -> {
+			Thread thread = new Thread(runnable, "email-sender-" + sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		meterRegistry.ifAvailable(registry -> {
+			sendSuccess = sendTimer(registry, "success");
+			sendFailure = sendTimer(registry, "failure");
+			delivery = Timer.builder("email.outbox.delivery")
+					.description("Time from queueing an email to the SMTP server accepting it")
+					.publishPercentileHistogram()
+					.minimumExpectedValue(Duration.ofMillis(100))
+					.maximumExpectedValue(Duration.ofHours(1))
+					.register(registry);
+		});
+	}
+
+	@Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms}")
+	public void dispatch() {
+		List<EmailOutbox> batch;
+		do {
+			batch = claim();
+			if (!batch.isEmpty()) {
+				complete(batch, send(batch));
+			}
+		}
+		while (batch.size() == batchSize);
+	}
+
+	@Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms}")
+	public void purgeFinished() {
+		Instant before = Instant.now().minus(Duration.ofDays(retentionDays));
+		int total = 0;
+		int deleted;
+		do {
+			deleted = transactionTemplate.execute(status -> repository.deleteFinishedBefore(before, purgeChunkSize));
+			total += deleted;
+		}
+		while (deleted == purgeChunkSize);
+		if (total > 0) {
+			logger.info("Removed {} finished outbox emails", total);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	private List<EmailOutbox> claim() {
+		return transactionTemplate.execute(status -> {
+			Instant now = Instant.now();
+			List<EmailOutbox> due = repository.findDueForUpdate(EmailStatus.PENDING, now, PageRequest.of(0, batchSize));
+			for (EmailOutbox email : due) {
+				email.setAttempts(email.getAttempts() + 1);
+				email.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+			}
+			return due;
+		});
+	}
+
+	private Map<Long, String> send(List<EmailOutbox> batch) {
+		int chunkSize = (batch.size() + connections - 1) / connections;
+		List<Future<Map<Long, String>>> futures = new ArrayList<>();
+		for (int i = 0; i < batch.size(); i += chunkSize) {
+			List<EmailOutbox> chunk = batch.subList(i, Math.min(i + chunkSize, batch.size()));
+			futures.add(executor.submit(() -> sendChunk(chunk)));
+		}
+		Map<Long, String> failures = new HashMap<>();
+		for (Future<Map<Long, String>> future : futures) {
+			try {
+				failures.putAll(future.get());
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while sending emails", e);
+			}
+			catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+		return failures;
+	}
+
+	private Map<Long, String> sendChunk(List<EmailOutbox> chunk) {
+		SimpleMailMessage[] messages = new SimpleMailMessage[chunk.size()];
+		for (int i = 0; i < chunk.size(); i++) {
+			EmailOutbox email = chunk.get(i);
+			messages[i] = new SimpleMailMessage();
+			messages[i].setFrom(emailFrom);
+			messages[i].setTo(email.getRecipient());
+			messages[i].setSubject(email.getSubject());
+			messages[i].setText(email.getBody());
+		}
+		Map<Long, String> failures = new HashMap<>();
+		long start = System.nanoTime();
+		try {
+			mailSender.send(messages);
+		}
+		catch (MailSendException e) {
+			for (int i = 0; i < chunk.size(); i++) {
+				Exception cause = e.getFailedMessages().get(messages[i]);
+				if (cause != null) {
+					failures.put(chunk.get(i).getId(), String.valueOf(cause.getMessage()));
+				}
+			}
+			if (failures.isEmpty()) {
+				chunk.forEach(email -> failures.put(email.getId(), String.valueOf(e.getMessage())));
+			}
+		}
+		catch (MailException e) {
+			chunk.forEach(email -> failures.put(email.getId(), String.valueOf(e.getMessage())));
+		}
+		Timer timer = failures.isEmpty() ? sendSuccess : sendFailure;
+		if (timer != null) {
+			timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+		return failures;
+	}
+
+	private void complete(List<EmailOutbox> batch, Map<Long, String> failures) {
+		Instant now = Instant.now();
+		List<Long> sent = new ArrayList<>();
+		List<EmailOutbox> failed = new ArrayList<>();
+		for (EmailOutbox email : batch) {
+			String error = failures.get(email.getId());
+			if (error == null) {
+				sent.add(email.getId());
+				if (delivery != null) {
+					delivery.record(Duration.between(email.getCreatedAt(), now));
+				}
+				continue;
+			}
+			email.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+			if (email.getAttempts() >= maxAttempts) {
+				email.setStatus(EmailStatus.FAILED);
+				logger.warn("Giving up on outbox email {} after {} attempts: {}", email.getId(), email.getAttempts(), error);
+			}
+			else {
+				email.setNextAttemptAt(now.plus(backoff(email.getAttempts())));
+			}
+			failed.add(email);
+		}
+		transactionTemplate.executeWithoutResult(status -> {
+			if (!sent.isEmpty()) {
+				repository.markSent(sent, EmailStatus.SENT, now);
+			}
+			repository.saveAll(failed);
+		});
+	}
+
+	// one SMTP connection sending its share of a batch
+	private static Timer sendTimer(MeterRegistry registry, String outcome) {
+		return Timer.builder("email.outbox.send")
+				.description("Time to send a chunk of outbox emails over one SMTP connection")
+				.tag("outcome", outcome)
+				.publishPercentileHistogram()
+				.minimumExpectedValue(Duration.ofMillis(10))
+				.maximumExpectedValue(Duration.ofMinutes(1))
+				.register(registry);
+	}
+
+	private Duration backoff(int attempts) {
+		long seconds = initialBackoffSeconds << Math.min(attempts - 1, 30);
+		seconds = Math.min(seconds < 0 ? maxBackoffSeconds : seconds, maxBackoffSeconds);
+		// up to 20% jitter so messages that failed together are not retried together
+		return Duration.ofSeconds(seconds).plusMillis(ThreadLocalRandom.current().nextLong(seconds * 200 + 1));
+	}
+}
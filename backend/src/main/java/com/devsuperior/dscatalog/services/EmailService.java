@@ -1,34 +1,27 @@
 package com.devsuperior.dscatalog.services;
 
+import java.time.Instant;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.devsuperior.dscatalog.services.exceptions.EmailException;
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import com.devsuperior.dscatalog.repositories.EmailOutboxRepository;
 
+/**
+ * Queues emails in tb_email_outbox as part of the caller's transaction. The
+ * message only becomes visible to EmailOutboxDispatcher, which talks to the
+ * SMTP server, once that transaction commits.
+ */
 @Service
 public class EmailService {
 	
-	@Value("${spring.mail.username}")
-	private String emailFrom;
-	
     @Autowired
-    private JavaMailSender emailSender;
+    private EmailOutboxRepository repository;
 
+    @Transactional
     public void sendEmail(String to, String subject, String body) {
-        try{
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(emailFrom);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-            emailSender.send(message);
-        } 
-        catch (MailException e){
-        	throw new EmailException("Failed to send email");
-        } 
+        repository.save(new EmailOutbox(to, subject, body, Instant.now()));
     }
-}
\ No newline at end of file
+}
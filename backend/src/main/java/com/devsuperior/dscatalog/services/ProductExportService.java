@@ -0,0 +1,190 @@
+package com.devsuperior.dscatalog.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dscatalog.projections.ProductExportProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.util.CsvUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the whole catalog straight from a database cursor. Rows arrive
+ * ordered by product id with one row per category, so only the product being
+ * assembled is held in memory.
+ * <p>
+ * With updatedSince only products whose updatedAt is at or after it are
+ * written; product updates and category renames both move updatedAt. Deleted
+ * products leave no row behind, so an incremental export never reports them:
+ * consumers that mirror the catalog need a periodic full export to drop them.
+ */
+@Service
+public class ProductExportService {
+
+	private static final String CSV_HEADER = "id,name,description,price,imgUrl,date,updatedAt,categoryIds,categoryNames";
+
+	@Value("${catalog.export.flush-every}")
+	private Integer flushEvery;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Transactional(readOnly = true)
+	public long export(ProductFileFormat format, Instant updatedSince, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+		long count = 0;
+		try (Stream<ProductExportProjection> stream = repository.streamForExport(updatedSince)) {
+			ExportItems items = new ExportItems(stream.iterator());
+			if (format == ProductFileFormat.NDJSON) {
+				JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+				generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+				for (ExportItem item = items.next(); item != null; item = items.next()) {
+					writeJson(generator, item);
+					if (++count % flushEvery == 0) {
+						generator.flush();
+					}
+				}
+				if (count > 0) {
+					generator.writeRaw('\n');
+				}
+				generator.flush();
+			}
+			else {
+				writer.write(CSV_HEADER);
+				writer.write('\n');
+				for (ExportItem item = items.next(); item != null; item = items.next()) {
+					writeCsv(writer, item);
+					if (++count % flushEvery == 0) {
+						writer.flush();
+					}
+				}
+				writer.flush();
+			}
+		}
+		return count;
+	}
+
+	private static void writeJson(JsonGenerator generator, ExportItem item) throws IOException {
+		ProductExportProjection product = item.product;
+		generator.writeStartObject();
+		generator.writeNumberField("id", product.getId());
+		generator.writeStringField("name", product.getName());
+		generator.writeStringField("description", product.getDescription());
+		if (product.getPrice() == null) {
+			generator.writeNullField("price");
+		}
+		else {
+			generator.writeNumberField("price", product.getPrice());
+		}
+		generator.writeStringField("imgUrl", product.getImgUrl());
+		generator.writeStringField("date", toString(product.getDate(), null));
+		generator.writeStringField("updatedAt", toString(product.getUpdatedAt(), null));
+		generator.writeArrayFieldStart("categories");
+		for (int i = 0; i < item.categoryIds.size(); i++) {
+			generator.writeStartObject();
+			generator.writeNumberField("id", item.categoryIds.get(i));
+			generator.writeStringField("name", item.categoryNames.get(i));
+			generator.writeEndObject();
+		}
+		generator.writeEndArray();
+		generator.writeEndObject();
+	}
+
+	private static void writeCsv(Writer writer, ExportItem item) throws IOException {
+		ProductExportProjection product = item.product;
+		writer.write(String.valueOf(product.getId()));
+		writer.write(',');
+		writer.write(CsvUtils.escape(product.getName()));
+		writer.write(',');
+		writer.write(CsvUtils.escape(product.getDescription()));
+		writer.write(',');
+		writer.write(product.getPrice() == null ? "" : String.valueOf(product.getPrice()));
+		writer.write(',');
+		writer.write(CsvUtils.escape(product.getImgUrl()));
+		writer.write(',');
+		writer.write(toString(product.getDate(), ""));
+		writer.write(',');
+		writer.write(toString(product.getUpdatedAt(), ""));
+		writer.write(',');
+		writer.write(CsvUtils.escape(join(item.categoryIds)));
+		writer.write(',');
+		writer.write(CsvUtils.escape(join(item.categoryNames)));
+		writer.write('\n');
+	}
+
+	private static String join(List<?> values) {
+		StringBuilder sb = new StringBuilder();
+		for (Object value : values) {
+			if (sb.length() > 0) {
+				sb.append('|');
+			}
+			sb.append(value);
+		}
+		return sb.toString();
+	}
+
+	private static String toString(Instant instant, String ifNull) {
+		return instant == null ? ifNull : instant.toString();
+	}
+
+	private static class ExportItem {
+
+		private final ProductExportProjection product;
+		private final List<Long> categoryIds = new ArrayList<>();
+		private final List<String> categoryNames = new ArrayList<>();
+
+		ExportItem(ProductExportProjection product) {
+			this.product = product;
+		}
+
+		void addCategory(ProductExportProjection row) {
+			if (row.getCategoryId() != null) {
+				categoryIds.add(row.getCategoryId());
+				categoryNames.add(row.getCategoryName());
+			}
+		}
+	}
+
+	private static class ExportItems {
+
+		private final Iterator<ProductExportProjection> rows;
+		private ProductExportProjection pending;
+
+		ExportItems(Iterator<ProductExportProjection> rows) {
+			this.rows = rows;
+			this.pending = rows.hasNext() ? rows.next() : null;
+		}
+
+		ExportItem next() {
+			if (pending == null) {
+				return null;
+			}
+			ExportItem item = new ExportItem(pending);
+			Long id = pending.getId();
+			while (pending != null && id.equals(pending.getId())) {
+				item.addCategory(pending);
+				pending = rows.hasNext() ? rows.next() : null;
+			}
+			return item;
+		}
+	}
+}
@@ -0,0 +1,321 @@
+package com.devsuperior.dscatalog.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportResultDTO;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.util.CsvUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Reads products one row at a time, validates each row and inserts the valid
+ * ones with JDBC batches, one transaction per batch. Product.id is an identity
+ * column, which keeps Hibernate from batching the inserts, so this goes
+ * around JPA and reads the generated ids back from the batch. A batch the
+ * database rejects is retried one row per transaction, so the report names
+ * the rows that fail and the rest are still imported.
+ */
+@Service
+public class ProductImportService {
+
+	private static final String INSERT_PRODUCT = "INSERT INTO tb_product (name, description, price, img_url, date, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+	private static final String INSERT_PRODUCT_CATEGORY = "INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)";
+
+	@Value("${catalog.import.batch-size}")
+	private Integer batchSize;
+
+	@Value("${catalog.import.max-errors}")
+	private Integer maxErrors;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	public ProductImportResultDTO importProducts(ProductFileFormat format, InputStream in) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+		Set<Long> categoryIds = categoryRepository.findAllIds();
+		ProductImportResultDTO result = new ProductImportResultDTO();
+		List<ImportRow> batch = new ArrayList<>(batchSize);
+		RowReader rows = format == ProductFileFormat.NDJSON ? new JsonRowReader(reader) : new CsvRowReader(reader);
+		long row = 0;
+		while (true) {
+			ProductDTO dto;
+			try {
+				dto = rows.next();
+			}
+			catch (IllegalArgumentException e) {
+				row++;
+				result.addError(row, e.getMessage(), maxErrors);
+				continue;
+			}
+			if (dto == null) {
+				break;
+			}
+			row++;
+			String error = validate(dto, categoryIds);
+			if (error != null) {
+				result.addError(row, error, maxErrors);
+				continue;
+			}
+			batch.add(new ImportRow(row, dto));
+			if (batch.size() == batchSize) {
+				flush(batch, result);
+			}
+		}
+		if (!batch.isEmpty()) {
+			flush(batch, result);
+		}
+		result.setReceived(row);
+		return result;
+	}
+
+	private String validate(ProductDTO dto, Set<Long> categoryIds) {
+		Set<ConstraintViolation<ProductDTO>> violations = validator.validate(dto);
+		if (!violations.isEmpty()) {
+			return violations.stream()
+					.map(x -> x.getPropertyPath() + ": " + x.getMessage())
+					.sorted()
+					.collect(Collectors.joining("; "));
+		}
+		for (CategoryDTO category : dto.getCategories()) {
+			if (category.getId() == null || !categoryIds.contains(category.getId())) {
+				return "Category not found: " + category.getId();
+			}
+		}
+		return null;
+	}
+
+	private void flush(List<ImportRow> batch, ProductImportResultDTO result) {
+		try {
+			insert(batch);
+			result.setImported(result.getImported() + batch.size());
+		}
+		catch (DataAccessException e) {
+			if (batch.size() == 1) {
+				result.addError(batch.get(0).row, "Insert failed: " + e.getMostSpecificCause().getMessage(), maxErrors);
+			}
+			else {
+				// the whole batch rolled back, so retry it row by row to tell which rows fail
+				for (ImportRow row : batch) {
+					flush(new ArrayList<>(List.of(row)), result);
+				}
+			}
+		}
+		batch.clear();
+	}
+
+	private void insert(List<ImportRow> batch) {
+		transactionTemplate.executeWithoutResult(status -> {
+			List<Long> ids = insertProducts(batch);
+			insertProductCategories(batch, ids);
+			for (int i = 0; i < batch.size(); i++) {
+				ProductDTO dto = batch.get(i).dto;
+				Set<Long> categoryIds = dto.getCategories().stream().map(x -> x.getId()).collect(Collectors.toSet());
+				eventPublisher.publishEvent(new ProductChangedEvent(ids.get(i), dto.getName(), categoryIds, false));
+			}
+		});
+	}
+
+	private List<Long> insertProducts(List<ImportRow> batch) {
+		Timestamp now = Timestamp.from(Instant.now());
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_PRODUCT, new String[] {"id"}), new BatchPreparedStatementSetter() {
+
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ProductDTO dto = batch.get(i).dto;
+				ps.setString(1, dto.getName());
+				ps.setString(2, dto.getDescription());
+				if (dto.getPrice() == null) {
+					ps.setNull(3, Types.DOUBLE);
+				}
+				else {
+					ps.setDouble(3, dto.getPrice());
+				}
+				ps.setString(4, dto.getImgUrl());
+				if (dto.getDate() == null) {
+					ps.setNull(5, Types.TIMESTAMP);
+				}
+				else {
+					ps.setTimestamp(5, Timestamp.from(dto.getDate()));
+				}
+				ps.setTimestamp(6, now);
+			}
+
+			@Override
+			public int getBatchSize() {
+				return batch.size();
+			}
+		}, keyHolder);
+		List<Long> ids = new ArrayList<>(batch.size());
+		for (Map<String, Object> keys : keyHolder.getKeyList()) {
+			ids.add(((Number) keys.values().iterator().next()).longValue());
+		}
+		return ids;
+	}
+
+	private void insertProductCategories(List<ImportRow> batch, List<Long> ids) {
+		List<Object[]> links = new ArrayList<>();
+		for (int i = 0; i < batch.size(); i++) {
+			for (CategoryDTO category : batch.get(i).dto.getCategories()) {
+				links.add(new Object[] {ids.get(i), category.getId()});
+			}
+		}
+		if (!links.isEmpty()) {
+			jdbcTemplate.batchUpdate(INSERT_PRODUCT_CATEGORY, links);
+		}
+	}
+
+	private static class ImportRow {
+
+		private final long row;
+		private final ProductDTO dto;
+
+		ImportRow(long row, ProductDTO dto) {
+			this.row = row;
+			this.dto = dto;
+		}
+	}
+
+	private interface RowReader {
+
+		/**
+		 * Returns null at end of input and throws IllegalArgumentException
+		 * for a row that cannot be parsed.
+		 */
+		ProductDTO next() throws IOException;
+	}
+
+	private class JsonRowReader implements RowReader {
+
+		private final BufferedReader reader;
+
+		JsonRowReader(BufferedReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public ProductDTO next() throws IOException {
+			String line = reader.readLine();
+			while (line != null && line.isBlank()) {
+				line = reader.readLine();
+			}
+			if (line == null) {
+				return null;
+			}
+			try {
+				return objectMapper.readValue(line, ProductDTO.class);
+			}
+			catch (JsonProcessingException e) {
+				throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+			}
+		}
+	}
+
+	private static class CsvRowReader implements RowReader {
+
+		private final BufferedReader reader;
+		private Map<String, Integer> columns;
+
+		CsvRowReader(BufferedReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public ProductDTO next() throws IOException {
+			if (columns == null) {
+				List<String> header = CsvUtils.readRecord(reader);
+				if (header == null) {
+					return null;
+				}
+				columns = new HashMap<>();
+				for (int i = 0; i < header.size(); i++) {
+					columns.put(header.get(i).trim(), i);
+				}
+			}
+			List<String> fields = CsvUtils.readRecord(reader);
+			while (fields != null && fields.size() == 1 && fields.get(0).isBlank()) {
+				fields = CsvUtils.readRecord(reader);
+			}
+			if (fields == null) {
+				return null;
+			}
+			ProductDTO dto = new ProductDTO();
+			dto.setName(field(fields, "name"));
+			dto.setDescription(field(fields, "description"));
+			dto.setImgUrl(field(fields, "imgUrl"));
+			try {
+				String price = field(fields, "price");
+				dto.setPrice(price == null ? null : Double.valueOf(price));
+				String date = field(fields, "date");
+				dto.setDate(date == null ? null : Instant.parse(date));
+				String categoryIds = field(fields, "categoryIds");
+				if (categoryIds != null) {
+					for (String id : categoryIds.split("\\|")) {
+						dto.getCategories().add(new CategoryDTO(Long.valueOf(id.trim()), null));
+					}
+				}
+			}
+			catch (NumberFormatException | DateTimeParseException e) {
+				throw new IllegalArgumentException("Invalid value: " + e.getMessage());
+			}
+			return dto;
+		}
+
+		private String field(List<String> fields, String name) {
+			Integer index = columns.get(name);
+			if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+				return null;
+			}
+			return fields.get(index);
+		}
+	}
+}
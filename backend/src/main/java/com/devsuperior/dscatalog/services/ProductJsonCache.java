@@ -0,0 +1,177 @@
+package com.devsuperior.dscatalog.services;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import com.devsuperior.dscatalog.config.ReplicaRouter;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.util.CacheUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Serialized GET /products/{id} bodies, bounded by total size in bytes.
+ * Entries are dropped after a product write commits; a category write drops
+ * everything because category names are embedded in every body.
+ */
+@Component
+public class ProductJsonCache {
+
+	private static final byte[] PRODUCTS_START = "{\"products\":[".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] MISSING_START = "],\"missingIds\":[".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] BATCH_END = "]}".getBytes(StandardCharsets.US_ASCII);
+
+	@Value("${cache.product-json.max-bytes}")
+	private Long maxBytes;
+
+	@Value("${catalog.products.batch.max-ids}")
+	private Integer maxBatchIds;
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> meterRegistry;
+
+	private AsyncCache<Long, CachedJson> cache;
+
+	@PostConstruct
+	public void init() {
+		cache = Caffeine.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((Long id, CachedJson json) -> json.getBody().length)
+				.recordStats()
+				.buildAsync();
+		meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "productJson"));
+	}
+
+	public CachedJson get(Long id) {
+		CachedJson json = CacheUtils.get(cache, id, this::load);
+		if (json == null) {
+			throw new ResourceNotFoundException("Entity not found");
+		}
+		return json;
+	}
+
+	/**
+	 * Builds {"products":[...],"missingIds":[...]} from cached bodies, loading
+	 * all misses with one query. Products keep the order of the given ids.
+	 */
+	public byte[] getBatch(Collection<Long> ids) {
+		if (ids.size() > maxBatchIds) {
+			throw new BadRequestException("At most " + maxBatchIds + " ids are allowed");
+		}
+		if (ids.contains(null)) {
+			throw new BadRequestException("Ids must not be null");
+		}
+		Map<Long, CachedJson> found = CacheUtils.getAll(cache, ids, this::loadAll);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.writeBytes(PRODUCTS_START);
+		boolean first = true;
+		for (Long id : ids) {
+			CachedJson json = found.get(id);
+			if (json != null) {
+				if (!first) {
+					out.write(',');
+				}
+				out.writeBytes(json.getBody());
+				first = false;
+			}
+		}
+		out.writeBytes(MISSING_START);
+		first = true;
+		for (Long id : ids) {
+			if (!found.containsKey(id)) {
+				if (!first) {
+					out.write(',');
+				}
+				out.writeBytes(id.toString().getBytes(StandardCharsets.US_ASCII));
+				first = false;
+			}
+		}
+		out.writeBytes(BATCH_END);
+		return out.toByteArray();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		cache.synchronous().invalidate(event.getId());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		cache.synchronous().invalidateAll();
+	}
+
+	// a miss is returned as null rather than thrown, since Caffeine logs every failed async load;
+	// loads read the primary, as a lagging replica right after an eviction would be cached until the next change
+	private CachedJson load(Long id) {
+		try {
+			return toJson(ReplicaRouter.readFromPrimary(() -> service.findById(id)));
+		}
+		catch (ResourceNotFoundException e) {
+			return null;
+		}
+	}
+
+	private Map<Long, CachedJson> loadAll(Set<Long> ids) {
+		Map<Long, CachedJson> result = new HashMap<>();
+		for (ProductDTO dto : ReplicaRouter.readFromPrimary(() -> service.findByIds(new ArrayList<>(ids)))) {
+			result.put(dto.getId(), toJson(dto));
+		}
+		return result;
+	}
+
+	private CachedJson toJson(ProductDTO dto) {
+		try {
+			return new CachedJson(objectMapper.writeValueAsBytes(dto));
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public static class CachedJson {
+
+		private final byte[] body;
+		private final String etag;
+
+		public CachedJson(byte[] body) {
+			this.body = body;
+			this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+		}
+
+		public byte[] getBody() {
+			return body;
+		}
+
+		public String getEtag() {
+			return etag;
+		}
+	}
+}
@@ -1,13 +1,16 @@
 package com.devsuperior.dscatalog.services;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -15,13 +18,21 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.devsuperior.dscatalog.dto.CategoryDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductSliceDTO;
+import com.devsuperior.dscatalog.dto.SearchPage;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.projections.ProductProjection;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.search.CountStrategy;
+import com.devsuperior.dscatalog.services.search.ProductSearchCounter;
+import com.devsuperior.dscatalog.services.search.ProductSearchIndex;
+import com.devsuperior.dscatalog.services.search.SearchQueryMode;
 import com.devsuperior.dscatalog.util.Utils;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -29,12 +40,26 @@ import jakarta.persistence.EntityNotFoundException;
 @Service
 public class ProductService {
 	
+	private static final int MAX_SLICE_SIZE = 100;
+	
+	@Value("${catalog.search.query-mode}")
+	private SearchQueryMode queryMode;
+	
 	@Autowired
 	private ProductRepository repository;
 	
 	@Autowired
 	private CategoryRepository catRepository;
 	
+	@Autowired
+	private ProductSearchIndex searchIndex;
+	
+	@Autowired
+	private ProductSearchCounter searchCounter;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
 	
 	/*
 	@Transactional(readOnly = true)
@@ -50,36 +75,68 @@ public class ProductService {
 		return ProductList.map(x -> new ProductDTO(x, x.getCategories()));
 	}
 	
-	@SuppressWarnings("unchecked")
 	@Transactional(readOnly = true)
 	public Page<ProductDTO> findAll(String categoryId, String name, Pageable pageable){
-		List<Long> categoryIds = Arrays.asList();
-		if(!"".equals(categoryId)) {
-			categoryIds = Arrays.asList(categoryId.split(",")).stream().map(x -> Long.parseLong(x)).toList();
+		List<Long> categoryIds = parseCategoryIds(categoryId);
+		SearchPage<ProductProjection> page;
+		if (searchIndex.supports(pageable)) {
+			Page<ProductProjection> result = searchIndex.search(categoryIds, name, pageable);
+			page = new SearchPage<>(result.getContent(), pageable, result.getTotalElements(), result.hasNext(), CountStrategy.INDEX);
 		}
-		Page<ProductProjection> page = repository.searchProduct(categoryIds, name, pageable);
-		List<Long> productsIds = page.map(x -> x.getId()).toList();
-		
-		List<Product> entities = repository.searchProductsWithCategories(productsIds);
-		entities = (List<Product>) Utils.replace(page.getContent(), entities);
-		List<ProductDTO> dtos = entities.stream().map(p -> new ProductDTO(p, p.getCategories())).toList();
+		else if (queryMode == SearchQueryMode.WINDOW) {
+			return repository.searchProductPage(categoryIds, name, pageable);
+		}
+		else {
+			page = searchCounter.search(categoryIds, name, pageable);
+		}
+		List<ProductDTO> dtos = loadInOrder(page.getContent());
 		
-		Page<ProductDTO> pageDto = new PageImpl<>(dtos, page.getPageable(), page.getTotalElements());
+		Page<ProductDTO> pageDto = new SearchPage<>(dtos, page);
 		return pageDto;
 	}
 	
+	@Transactional(readOnly = true)
+	public ProductSliceDTO findAllAfter(String categoryId, String name, String after, Integer size, String sort){
+		if (size < 1 || size > MAX_SLICE_SIZE) {
+			throw new BadRequestException("Size must be between 1 and " + MAX_SLICE_SIZE);
+		}
+		List<Long> categoryIds = parseCategoryIds(categoryId);
+		String sortProperty = parseSliceSort(sort);
+		String[] cursor = decodeCursor(after, sortProperty);
+		Long afterId = Long.parseLong(cursor[1]);
+		
+		List<ProductProjection> rows = "id".equals(sortProperty)
+				? repository.searchProductAfterId(categoryIds, name, afterId, size + 1)
+				: repository.searchProductAfterName(categoryIds, name, cursor[2], afterId, size + 1);
+		boolean hasNext = rows.size() > size;
+		if (hasNext) {
+			rows = rows.subList(0, size);
+		}
+		String nextCursor = hasNext ? encodeCursor(sortProperty, rows.get(rows.size() - 1)) : null;
+		return new ProductSliceDTO(loadInOrder(rows), size, hasNext, nextCursor);
+	}
+	
 	@Transactional(readOnly = true)
 	public ProductDTO findById(Long id){
-		Optional<Product> product = repository.findById(id);
+		Optional<Product> product = repository.findWithCategoriesById(id);
 		Product entity = product.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
 		return new ProductDTO(entity, entity.getCategories());
 	}
 	
+	@Transactional(readOnly = true)
+	public List<ProductDTO> findByIds(List<Long> ids){
+		long[] ordered = ids.stream().mapToLong(Long::longValue).toArray();
+		List<Product> entities = repository.searchProductsWithCategories(ids);
+		entities = Utils.reorder(ordered, entities, Product::getId);
+		return entities.stream().map(p -> new ProductDTO(p, p.getCategories())).toList();
+	}
+	
 	@Transactional
 	public ProductDTO insert(ProductDTO dto) {
 		Product entity = new Product();
 		copyDtoToEntity(dto, entity);
 		entity = repository.save(entity);
+		eventPublisher.publishEvent(ProductChangedEvent.saved(entity));
 		return new ProductDTO(entity, entity.getCategories());
 	}
 	
@@ -89,7 +146,10 @@ public class ProductService {
 		try {
 			Product entity = repository.getReferenceById(id);
 			copyDtoToEntity(dto, entity);
+			// @PreUpdate does not reliably fire when only the category set changed
+			entity.touch();
 			entity = repository.save(entity);
+			eventPublisher.publishEvent(ProductChangedEvent.saved(entity));
 			return new ProductDTO(entity, entity.getCategories());
 		}
 		catch(EntityNotFoundException e) {
@@ -104,12 +164,70 @@ public class ProductService {
 		}
 		try {
 			repository.deleteById(id);    		
+			eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
 		}
 		catch (DataIntegrityViolationException e) {
 			throw new DatabaseException("Falha de integridade referencial");
 		}
 	}
 	
+	private List<ProductDTO> loadInOrder(List<ProductProjection> ordered) {
+		List<Long> productsIds = ordered.stream().map(x -> x.getId()).toList();
+		List<Product> entities = repository.searchProductsWithCategories(productsIds);
+		entities = Utils.reorder(Utils.toLongArray(ordered), entities, Product::getId);
+		return entities.stream().map(p -> new ProductDTO(p, p.getCategories())).toList();
+	}
+	
+	private List<Long> parseCategoryIds(String categoryId) {
+		List<Long> categoryIds = Arrays.asList();
+		if(!"".equals(categoryId)) {
+			categoryIds = Arrays.asList(categoryId.split(",")).stream().map(x -> Long.parseLong(x)).toList();
+		}
+		return categoryIds;
+	}
+	
+	private static String parseSliceSort(String sort) {
+		String[] parts = sort.split(",");
+		String property = parts[0].trim();
+		if (!"name".equals(property) && !"id".equals(property)) {
+			throw new BadRequestException("Sort must be name or id");
+		}
+		if (parts.length > 1 && !"asc".equalsIgnoreCase(parts[1].trim())) {
+			throw new BadRequestException("Only ascending sort is supported with a cursor");
+		}
+		return property;
+	}
+	
+	/*
+	 * Cursor layout before Base64: "<sort>:<id>[:<name>]". An empty cursor
+	 * starts from the beginning; a cursor issued for another sort is rejected.
+	 */
+	private static String encodeCursor(String sortProperty, ProductProjection last) {
+		String raw = "id".equals(sortProperty)
+				? sortProperty + ":" + last.getId()
+				: sortProperty + ":" + last.getId() + ":" + last.getName();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private static String[] decodeCursor(String after, String sortProperty) {
+		if (after.isEmpty()) {
+			return new String[] {sortProperty, "0", ""};
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+			String[] cursor = raw.split(":", 3);
+			int expectedParts = "id".equals(sortProperty) ? 2 : 3;
+			if (cursor.length != expectedParts || !sortProperty.equals(cursor[0])) {
+				throw new BadRequestException("Invalid cursor");
+			}
+			Long.parseLong(cursor[1]);
+			return cursor;
+		}
+		catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid cursor");
+		}
+	}
+	
 	private void copyDtoToEntity(ProductDTO dto, Product entity) {
 		entity.setName(dto.getName());
 		entity.setDescription(dto.getDescription());
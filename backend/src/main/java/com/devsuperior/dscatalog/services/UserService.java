@@ -4,10 +4,14 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.config.CacheConfig;
 import com.devsuperior.dscatalog.dto.RoleDTO;
 import com.devsuperior.dscatalog.dto.UserDTO;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
@@ -30,7 +35,7 @@ import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
-public class UserService implements UserDetailsService{
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 	
 	@Autowired
 	private PasswordEncoder passwordEncoder;
@@ -66,6 +71,7 @@ public class UserService implements UserDetailsService{
 		return new UserDTO(entity);
 	}
 	
+	@Cacheable(cacheNames = CacheConfig.USER_ME, key = "@authService.authenticatedUsername()")
 	@Transactional(readOnly = true)
 	public UserDTO findMe(){
 		User entity = authService.authenticated();
@@ -85,6 +91,9 @@ public class UserService implements UserDetailsService{
 	}
 	
 
+	@Caching(evict = {
+		@CacheEvict(cacheNames = CacheConfig.USER_DETAILS, allEntries = true),
+		@CacheEvict(cacheNames = CacheConfig.USER_ME, allEntries = true)})
 	@Transactional
 	public UserDTO update(Long id, UserUpdateDTO dto) {
 		try {
@@ -98,6 +107,9 @@ public class UserService implements UserDetailsService{
 		}
 	}
 
+	@Caching(evict = {
+		@CacheEvict(cacheNames = CacheConfig.USER_DETAILS, allEntries = true),
+		@CacheEvict(cacheNames = CacheConfig.USER_ME, allEntries = true)})
 	@Transactional(propagation = Propagation.SUPPORTS)
 	public void delete(Long id) {
 		if (!repository.existsById(id)) {
@@ -123,6 +135,7 @@ public class UserService implements UserDetailsService{
 	}
 
 	@Override
+	@Cacheable(cacheNames = CacheConfig.USER_DETAILS, key = "#username")
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 		List<UserDetailsProjection> result = repository.searchUserAndRolesByEmail(username);
 		
@@ -138,4 +151,16 @@ public class UserService implements UserDetailsService{
 		}
 		return user;
 	}
+
+	@Override
+	@CacheEvict(cacheNames = CacheConfig.USER_DETAILS, key = "#user.username")
+	@Transactional
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		User entity = repository.findByEmail(user.getUsername());
+		if (entity == null) {
+			return user;
+		}
+		entity.setPassword(newPassword);
+		return entity;
+	}
 }
@@ -0,0 +1,20 @@
+package com.devsuperior.dscatalog.services.events;
+
+public class CategoryChangedEvent {
+
+	private final Long id;
+	private final boolean deleted;
+
+	public CategoryChangedEvent(Long id, boolean deleted) {
+		this.id = id;
+		this.deleted = deleted;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public boolean isDeleted() {
+		return deleted;
+	}
+}
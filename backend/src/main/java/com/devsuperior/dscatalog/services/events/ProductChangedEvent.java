@@ -0,0 +1,46 @@
+package com.devsuperior.dscatalog.services.events;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.devsuperior.dscatalog.entities.Product;
+
+public class ProductChangedEvent {
+
+	private final Long id;
+	private final String name;
+	private final Set<Long> categoryIds;
+	private final boolean deleted;
+
+	public ProductChangedEvent(Long id, String name, Set<Long> categoryIds, boolean deleted) {
+		this.id = id;
+		this.name = name;
+		this.categoryIds = categoryIds;
+		this.deleted = deleted;
+	}
+
+	public static ProductChangedEvent saved(Product entity) {
+		Set<Long> categoryIds = entity.getCategories().stream().map(x -> x.getId()).collect(Collectors.toSet());
+		return new ProductChangedEvent(entity.getId(), entity.getName(), categoryIds, false);
+	}
+
+	public static ProductChangedEvent deleted(Long id) {
+		return new ProductChangedEvent(id, null, Set.of(), true);
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Set<Long> getCategoryIds() {
+		return categoryIds;
+	}
+
+	public boolean isDeleted() {
+		return deleted;
+	}
+}
@@ -0,0 +1,10 @@
+package com.devsuperior.dscatalog.services.search;
+
+public enum CountStrategy {
+	
+	EXACT,
+	CACHED,
+	ESTIMATED,
+	NONE,
+	INDEX;
+}
@@ -0,0 +1,58 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of product ids stored as a primitive array.
+ * Ids are generated in ascending order, so most additions are appends.
+ */
+class IdPostings {
+
+	private int[] ids = new int[4];
+	private int size;
+
+	void add(int id) {
+		if (size > 0 && ids[size - 1] >= id) {
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos >= 0) {
+				return;
+			}
+			insertAt(-pos - 1, id);
+			return;
+		}
+		insertAt(size, id);
+	}
+
+	void remove(int id) {
+		int pos = Arrays.binarySearch(ids, 0, size, id);
+		if (pos >= 0) {
+			System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+			size--;
+		}
+	}
+
+	boolean contains(int id) {
+		return Arrays.binarySearch(ids, 0, size, id) >= 0;
+	}
+
+	int get(int index) {
+		return ids[index];
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	private void insertAt(int pos, int id) {
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+		}
+		System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+		ids[pos] = id;
+		size++;
+	}
+}
@@ -0,0 +1,147 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.dto.SearchPage;
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.util.CacheUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Runs {@link ProductRepository#searchProduct} with the configured
+ * {@link CountStrategy}. Every strategy other than EXACT fetches the page as a
+ * slice and obtains the total separately, or not at all.
+ */
+@Component
+public class ProductSearchCounter {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductSearchCounter.class);
+
+	@Value("${catalog.search.count.strategy}")
+	private CountStrategy strategy;
+
+	@Value("${catalog.search.count.cache-ttl-seconds}")
+	private Long cacheTtlSeconds;
+
+	@Value("${catalog.search.count.cache-max-size}")
+	private Long cacheMaxSize;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private AsyncCache<String, Long> cache;
+	private volatile Boolean postgres;
+
+	@PostConstruct
+	public void init() {
+		cache = Caffeine.newBuilder()
+				.maximumSize(cacheMaxSize)
+				.expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+				.buildAsync();
+	}
+
+	public SearchPage<ProductProjection> search(List<Long> categoryIds, String name, Pageable pageable) {
+		if (strategy == CountStrategy.EXACT) {
+			Page<ProductProjection> page = repository.searchProduct(categoryIds, name, pageable);
+			return new SearchPage<>(page.getContent(), pageable, page.getTotalElements(), page.hasNext(), CountStrategy.EXACT);
+		}
+		Slice<ProductProjection> slice = repository.searchProductSlice(categoryIds, name, pageable);
+		if (strategy == CountStrategy.NONE) {
+			return new SearchPage<>(slice.getContent(), pageable, null, slice.hasNext(), CountStrategy.NONE);
+		}
+		if (strategy == CountStrategy.ESTIMATED && isPostgres()) {
+			Long estimate = estimate(categoryIds, name);
+			if (estimate != null) {
+				return new SearchPage<>(slice.getContent(), pageable, estimate, slice.hasNext(), CountStrategy.ESTIMATED);
+			}
+		}
+		if (strategy == CountStrategy.CACHED) {
+			Long total = CacheUtils.get(cache, cacheKey(categoryIds, name), x -> repository.countProduct(categoryIds, name));
+			return new SearchPage<>(slice.getContent(), pageable, total, slice.hasNext(), CountStrategy.CACHED);
+		}
+		Long total = repository.countProduct(categoryIds, name);
+		return new SearchPage<>(slice.getContent(), pageable, total, slice.hasNext(), CountStrategy.EXACT);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		cache.synchronous().invalidateAll();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		cache.synchronous().invalidateAll();
+	}
+
+	/*
+	 * Uses the row estimate of the top plan node, so the cost is one planner
+	 * run instead of executing the search a second time.
+	 */
+	private Long estimate(List<Long> categoryIds, String name) {
+		StringBuilder sql = new StringBuilder("""
+				EXPLAIN (FORMAT JSON)
+				SELECT DISTINCT tb_product.id, tb_product.name
+				FROM tb_product
+				INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+				WHERE LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%'))
+				""");
+		MapSqlParameterSource params = new MapSqlParameterSource("name", name);
+		if (!categoryIds.isEmpty()) {
+			sql.append(" AND tb_product_category.category_id IN (:categoryIds)");
+			params.addValue("categoryIds", categoryIds);
+		}
+		try {
+			String plan = jdbcTemplate.queryForObject(sql.toString(), params, String.class);
+			return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+		}
+		catch (DataAccessException | JsonProcessingException e) {
+			logger.warn("Could not estimate product count, falling back to exact count: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private boolean isPostgres() {
+		if (postgres == null) {
+			String product = jdbcTemplate.getJdbcTemplate().execute(
+					(ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+			postgres = "PostgreSQL".equalsIgnoreCase(product);
+		}
+		return postgres;
+	}
+
+	private static String cacheKey(List<Long> categoryIds, String name) {
+		String categories = categoryIds.stream().distinct().sorted().map(String::valueOf).collect(Collectors.joining(","));
+		return categories + "|" + name.toLowerCase(Locale.ROOT);
+	}
+}
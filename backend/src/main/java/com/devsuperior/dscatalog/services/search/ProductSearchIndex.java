@@ -0,0 +1,461 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.config.ReplicaRouter;
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+
+/**
+ * In-memory trigram index over product names plus one id bitmap per category.
+ * Answers the same question as {@link ProductRepository#searchProduct}
+ * (case-insensitive substring match on products that have at least one of the
+ * requested categories) without scanning tb_product or tb_product_category.
+ */
+@Component
+public class ProductSearchIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+	private static final int GRAM = 3;
+	private static final String BINARY_COLLATION = "binary";
+
+	@Value("${catalog.search.index.enabled}")
+	private boolean enabled;
+
+	@Value("${catalog.search.index.collation}")
+	private String collation;
+
+	@Autowired
+	private ProductRepository repository;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, IdPostings> postings = new HashMap<>();
+	private final BitSet indexed = new BitSet();
+	private final BitSet shortNames = new BitSet();
+	private final Map<Long, BitSet> categoryMembers = new HashMap<>();
+	private String[] names = new String[0];
+	private String[] lowerNames = new String[0];
+	private Collator collator;
+	private CollationKey[] nameKeys;
+	// indexed ids in name order, kept current by put and remove
+	private int[] nameOrder = new int[0];
+	private int nameOrderSize;
+	private boolean loading;
+	private volatile boolean ready;
+
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			ready = false;
+			collator = sortsByName() && !BINARY_COLLATION.equalsIgnoreCase(collation)
+					? Collator.getInstance(Locale.forLanguageTag(collation))
+					: null;
+			clear();
+			loading = true;
+			// from the primary: later changes arrive as events, so the snapshot must not be behind
+			ReplicaRouter.readFromPrimary(() -> {
+				try (Stream<ProductProjection> stream = repository.streamIndexableProducts()) {
+					stream.forEach(x -> put(x.getId(), x.getName()));
+				}
+				try (Stream<ProductCategoryProjection> stream = repository.streamProductCategories()) {
+					stream.forEach(x -> addToCategory(x.getCategoryId(), x.getProductId()));
+				}
+			});
+			loading = false;
+			sortNameOrder();
+			ready = true;
+			logger.info("Product search index built with {} products", indexed.cardinality());
+		}
+		catch (IndexOutOfBoundsException e) {
+			loading = false;
+			clear();
+			logger.warn("Product search index disabled: {}", e.getMessage());
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			remove(event.getId());
+			if (!event.isDeleted() && !event.getCategoryIds().isEmpty()) {
+				put(event.getId(), event.getName());
+				for (Long categoryId : event.getCategoryIds()) {
+					addToCategory(categoryId, event.getId());
+				}
+			}
+		}
+		catch (IndexOutOfBoundsException e) {
+			ready = false;
+			logger.warn("Product search index disabled: {}", e.getMessage());
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		if (!enabled || !event.isDeleted()) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			categoryMembers.remove(event.getId());
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public boolean supports(Pageable pageable) {
+		if (!ready) {
+			return false;
+		}
+		Sort sort = pageable.getSort();
+		if (sort.isUnsorted()) {
+			return true;
+		}
+		List<Sort.Order> orders = sort.toList();
+		if (orders.size() != 1 || orders.get(0).isIgnoreCase()) {
+			return false;
+		}
+		String property = orders.get(0).getProperty();
+		// name order has to match the database collation, or a page would differ depending on who answers it
+		return "id".equals(property) || "name".equals(property) && sortsByName();
+	}
+
+	private boolean sortsByName() {
+		return collation != null && !collation.isBlank();
+	}
+
+	public Page<ProductProjection> search(List<Long> categoryIds, String name, Pageable pageable) {
+		lock.readLock().lock();
+		try {
+			BitSet matches = match(name.toLowerCase(Locale.ROOT));
+			if (!categoryIds.isEmpty()) {
+				matches.and(union(categoryIds));
+			}
+			long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+			int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+			int total = matches.cardinality();
+			List<ProductProjection> content = new ArrayList<>();
+			Sort.Order order = pageable.getSort().isSorted() ? pageable.getSort().toList().get(0) : Sort.Order.asc("id");
+			if ("name".equals(order.getProperty())) {
+				collectByName(matches, total, order.isAscending(), offset, limit, content);
+			}
+			else {
+				collectById(matches, order.isAscending(), offset, limit, content);
+			}
+			return new PageImpl<>(content, pageable, total);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private BitSet union(List<Long> categoryIds) {
+		BitSet result = new BitSet();
+		for (Long categoryId : categoryIds) {
+			BitSet members = categoryMembers.get(categoryId);
+			if (members != null) {
+				result.or(members);
+			}
+		}
+		return result;
+	}
+
+	private BitSet match(String query) {
+		if (query.isEmpty()) {
+			return (BitSet) indexed.clone();
+		}
+		BitSet result = new BitSet();
+		if (query.length() < GRAM) {
+			// a shorter query lies inside one of the name's grams, unless the name itself is shorter than a gram
+			for (Map.Entry<String, IdPostings> entry : postings.entrySet()) {
+				if (entry.getKey().contains(query)) {
+					IdPostings list = entry.getValue();
+					for (int i = 0; i < list.size(); i++) {
+						result.set(list.get(i));
+					}
+				}
+			}
+			for (int id = shortNames.nextSetBit(0); id >= 0; id = shortNames.nextSetBit(id + 1)) {
+				if (lowerNames[id].contains(query)) {
+					result.set(id);
+				}
+			}
+			return result;
+		}
+		List<IdPostings> lists = new ArrayList<>();
+		for (String gram : grams(query)) {
+			IdPostings list = postings.get(gram);
+			if (list == null) {
+				return result;
+			}
+			lists.add(list);
+		}
+		lists.sort(Comparator.comparingInt(IdPostings::size));
+		IdPostings smallest = lists.get(0);
+		for (int i = 0; i < smallest.size(); i++) {
+			int id = smallest.get(i);
+			if (containsInAll(lists, id) && lowerNames[id].contains(query)) {
+				result.set(id);
+			}
+		}
+		return result;
+	}
+
+	private static boolean containsInAll(List<IdPostings> lists, int id) {
+		for (int i = 1; i < lists.size(); i++) {
+			if (!lists.get(i).contains(id)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void collectById(BitSet matches, boolean ascending, long offset, int limit, List<ProductProjection> content) {
+		long skipped = 0;
+		int id = ascending ? matches.nextSetBit(0) : matches.previousSetBit(matches.length() - 1);
+		while (id >= 0 && content.size() < limit) {
+			if (skipped++ >= offset) {
+				content.add(new IndexEntry((long) id, names[id]));
+			}
+			id = ascending ? matches.nextSetBit(id + 1) : matches.previousSetBit(id - 1);
+		}
+	}
+
+	private void collectByName(BitSet matches, int total, boolean ascending, long offset, int limit,
+			List<ProductProjection> content) {
+		if (offset >= total) {
+			return;
+		}
+		if (total == nameOrderSize) {
+			int end = (int) Math.min(total, offset + limit);
+			for (int i = (int) offset; i < end; i++) {
+				int id = nameOrder[ascending ? i : nameOrderSize - 1 - i];
+				content.add(new IndexEntry((long) id, names[id]));
+			}
+			return;
+		}
+		if (total <= nameOrderSize >> 4) {
+			// few matches: sorting them is cheaper than walking the whole order
+			Integer[] ids = matches.stream().boxed().toArray(Integer[]::new);
+			Arrays.sort(ids, (a, b) -> ascending ? compareNames(a, b) : compareNames(b, a));
+			int end = (int) Math.min(total, offset + limit);
+			for (int i = (int) offset; i < end; i++) {
+				content.add(new IndexEntry((long) ids[i], names[ids[i]]));
+			}
+			return;
+		}
+		long skipped = 0;
+		for (int i = 0; i < nameOrderSize && content.size() < limit; i++) {
+			int id = nameOrder[ascending ? i : nameOrderSize - 1 - i];
+			if (matches.get(id) && skipped++ >= offset) {
+				content.add(new IndexEntry((long) id, names[id]));
+			}
+		}
+	}
+
+	private int compareNames(int a, int b) {
+		int result = nameKeys != null ? nameKeys[a].compareTo(nameKeys[b]) : names[a].compareTo(names[b]);
+		return result != 0 ? result : Integer.compare(a, b);
+	}
+
+	private void sortNameOrder() {
+		if (!sortsByName()) {
+			return;
+		}
+		nameOrder = indexed.stream().boxed().sorted(this::compareNames).mapToInt(Integer::intValue).toArray();
+		nameOrderSize = nameOrder.length;
+	}
+
+	private int nameOrderPosition(int id) {
+		int low = 0;
+		int high = nameOrderSize - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compareNames(nameOrder[mid], id);
+			if (cmp < 0) {
+				low = mid + 1;
+			}
+			else if (cmp > 0) {
+				high = mid - 1;
+			}
+			else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	private void addToNameOrder(int id) {
+		int pos = -nameOrderPosition(id) - 1;
+		if (nameOrderSize == nameOrder.length) {
+			nameOrder = Arrays.copyOf(nameOrder, nameOrderSize + (nameOrderSize >> 1) + 1);
+		}
+		System.arraycopy(nameOrder, pos, nameOrder, pos + 1, nameOrderSize - pos);
+		nameOrder[pos] = id;
+		nameOrderSize++;
+	}
+
+	private void removeFromNameOrder(int id) {
+		int pos = nameOrderPosition(id);
+		if (pos >= 0) {
+			System.arraycopy(nameOrder, pos + 1, nameOrder, pos, nameOrderSize - pos - 1);
+			nameOrderSize--;
+		}
+	}
+
+	private void put(Long productId, String name) {
+		int id = toIndex(productId);
+		if (id >= names.length) {
+			int length = Math.max(id + 1, names.length + (names.length >> 1));
+			names = Arrays.copyOf(names, length);
+			lowerNames = Arrays.copyOf(lowerNames, length);
+			if (nameKeys != null) {
+				nameKeys = Arrays.copyOf(nameKeys, length);
+			}
+		}
+		if (name == null) {
+			name = "";
+		}
+		String lower = name.toLowerCase(Locale.ROOT);
+		names[id] = name;
+		lowerNames[id] = lower;
+		if (nameKeys != null) {
+			nameKeys[id] = collator.getCollationKey(name);
+		}
+		indexed.set(id);
+		shortNames.set(id, lower.length() < GRAM);
+		for (String gram : grams(lower)) {
+			postings.computeIfAbsent(gram, x -> new IdPostings()).add(id);
+		}
+		if (!loading && sortsByName()) {
+			addToNameOrder(id);
+		}
+	}
+
+	private void remove(Long productId) {
+		if (productId == null || productId < 0 || productId >= names.length || !indexed.get(productId.intValue())) {
+			return;
+		}
+		int id = productId.intValue();
+		if (sortsByName()) {
+			removeFromNameOrder(id);
+		}
+		for (String gram : grams(lowerNames[id])) {
+			IdPostings list = postings.get(gram);
+			list.remove(id);
+			if (list.isEmpty()) {
+				postings.remove(gram);
+			}
+		}
+		names[id] = null;
+		lowerNames[id] = null;
+		if (nameKeys != null) {
+			nameKeys[id] = null;
+		}
+		indexed.clear(id);
+		shortNames.clear(id);
+		for (BitSet members : categoryMembers.values()) {
+			members.clear(id);
+		}
+	}
+
+	private void addToCategory(Long categoryId, Long productId) {
+		categoryMembers.computeIfAbsent(categoryId, x -> new BitSet()).set(toIndex(productId));
+	}
+
+	private void clear() {
+		postings.clear();
+		indexed.clear();
+		shortNames.clear();
+		categoryMembers.clear();
+		names = new String[0];
+		lowerNames = new String[0];
+		nameKeys = collator == null ? null : new CollationKey[0];
+		nameOrder = new int[0];
+		nameOrderSize = 0;
+	}
+
+	private static int toIndex(Long productId) {
+		if (productId == null || productId < 0 || productId >= Integer.MAX_VALUE) {
+			throw new IndexOutOfBoundsException("Product id out of index range: " + productId);
+		}
+		return productId.intValue();
+	}
+
+	private static Set<String> grams(String text) {
+		Set<String> result = new LinkedHashSet<>();
+		for (int i = 0; i + GRAM <= text.length(); i++) {
+			result.add(text.substring(i, i + GRAM));
+		}
+		return result;
+	}
+
+	private static class IndexEntry implements ProductProjection {
+
+		private final Long id;
+		private final String name;
+
+		IndexEntry(Long id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		@Override
+		public Long getId() {
+			return id;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+}
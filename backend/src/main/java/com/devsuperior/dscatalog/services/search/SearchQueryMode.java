@@ -0,0 +1,7 @@
+package com.devsuperior.dscatalog.services.search;
+
+public enum SearchQueryMode {
+	
+	TWO_STEP,
+	WINDOW;
+}
@@ -0,0 +1,69 @@
+package com.devsuperior.dscatalog.util;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+/**
+ * Loads AsyncCache misses on the calling thread. Cache.get(key, loader) runs
+ * the loader inside ConcurrentHashMap.compute, which holds a monitor, so a
+ * JDBC call there pins a virtual thread to its carrier for the whole query.
+ * Here only an empty future is published under that lock; concurrent callers
+ * for the same key still wait for the one load instead of repeating it.
+ */
+public class CacheUtils {
+
+	public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+		CompletableFuture<V> loading = new CompletableFuture<>();
+		CompletableFuture<V> future = cache.get(key, (k, executor) -> loading);
+		if (future == loading) {
+			try {
+				loading.complete(loader.apply(key));
+			}
+			catch (RuntimeException | Error e) {
+				loading.completeExceptionally(e);
+			}
+		}
+		return join(future);
+	}
+
+	public static <K, V> Map<K, V> getAll(AsyncCache<K, V> cache, Iterable<? extends K> keys,
+			Function<Set<K>, Map<K, V>> loader) {
+		CompletableFuture<Map<K, V>> loading = new CompletableFuture<>();
+		AtomicReference<Set<? extends K>> missing = new AtomicReference<>();
+		CompletableFuture<Map<K, V>> future = cache.getAll(keys, (k, executor) -> {
+			missing.set(k);
+			return loading;
+		});
+		if (missing.get() != null) {
+			try {
+				loading.complete(loader.apply(new LinkedHashSet<>(missing.get())));
+			}
+			catch (RuntimeException | Error e) {
+				loading.completeExceptionally(e);
+			}
+		}
+		return join(future);
+	}
+
+	private static <V> V join(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw e;
+		}
+	}
+}
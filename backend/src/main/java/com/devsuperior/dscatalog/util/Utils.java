@@ -1,25 +1,101 @@
 package com.devsuperior.dscatalog.util;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Map;
+import java.util.function.ToLongFunction;
 
 import com.devsuperior.dscatalog.projections.IdProjection;
 
 public class Utils {
 
-	public static <ID> List<? extends IdProjection<ID>> replace(List<? extends IdProjection<ID>> ordered, List<? extends IdProjection<ID>> unordered) {
-		
-		Map<ID, IdProjection<ID>> map = new HashMap<>();
-		for (IdProjection<ID> obj : unordered ) {
-			map.put(obj.getId(), obj);
+	private static final int LINEAR_REORDER_MAX = 32;
+
+	/**
+	 * Returns items in the order of orderedIds, matching them by idOf. IDs with
+	 * no item are skipped, so the result can be shorter than orderedIds; an ID
+	 * repeated in orderedIds repeats its item; when several items share an ID
+	 * the first one wins.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> List<T> reorder(long[] orderedIds, List<T> items, ToLongFunction<? super T> idOf) {
+		Object[] result = new Object[orderedIds.length];
+		int count = reorder(orderedIds, items, idOf, (T[]) result);
+		return (List<T>) Arrays.asList(count == result.length ? result : Arrays.copyOf(result, count));
+	}
+
+	/**
+	 * Same as {@link #reorder(long[], List, ToLongFunction)}, writing into a
+	 * caller-provided array of at least orderedIds.length elements. Returns the
+	 * number of elements written. Search-sized inputs are matched by a plain
+	 * scan and allocate nothing; larger ones go through an open-addressing
+	 * table of item positions, a single int[] at most 0.75 full.
+	 */
+	public static <T> int reorder(long[] orderedIds, List<T> items, ToLongFunction<? super T> idOf, T[] into) {
+		int size = items.size();
+		int count = 0;
+		if (size <= LINEAR_REORDER_MAX) {
+			for (long id : orderedIds) {
+				for (int i = 0; i < size; i++) {
+					T item = items.get(i);
+					if (idOf.applyAsLong(item) == id) {
+						into[count++] = item;
+						break;
+					}
+				}
+			}
+			return count;
+		}
+		// item position + 1 per slot, 0 marks a free slot
+		int[] table = new int[Integer.highestOneBit(size * 4 / 3) << 1];
+		int mask = table.length - 1;
+		for (int i = 0; i < size; i++) {
+			long id = idOf.applyAsLong(items.get(i));
+			int slot = slot(id, mask);
+			while (table[slot] != 0 && idOf.applyAsLong(items.get(table[slot] - 1)) != id) {
+				slot = (slot + 1) & mask;
+			}
+			if (table[slot] == 0) {
+				table[slot] = i + 1;
+			}
+		}
+		for (long id : orderedIds) {
+			int slot = slot(id, mask);
+			while (table[slot] != 0) {
+				T item = items.get(table[slot] - 1);
+				if (idOf.applyAsLong(item) == id) {
+					into[count++] = item;
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+		return count;
+	}
+
+	public static long[] toLongArray(List<? extends IdProjection<Long>> projections) {
+		long[] ids = new long[projections.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = projections.get(i).getId();
+		}
+		return ids;
+	}
+	
+	public static String sha256Hex(String value) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
 		}
-		
-		List<IdProjection<ID>> result = new ArrayList<>();
-		for (IdProjection<ID> obj : ordered) {
-			result.add(map.get(obj.getId()));
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
 		}
-		return result;
+	}
+
+	private static int slot(long id, int mask) {
+		long h = id * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
 	}
 }
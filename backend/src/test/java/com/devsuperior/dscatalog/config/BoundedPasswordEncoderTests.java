@@ -0,0 +1,115 @@
+package com.devsuperior.dscatalog.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BoundedPasswordEncoderTests {
+
+	private MeterRegistry meterRegistry;
+	private CountDownLatch release;
+	private BoundedPasswordEncoder encoder;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		meterRegistry = new SimpleMeterRegistry();
+		release = new CountDownLatch(1);
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		release.countDown();
+		encoder.destroy();
+	}
+
+	@Test
+	public void encodeShouldRunOnHashingThread() {
+		release.countDown();
+
+		Assertions.assertTrue(encoder.encode("123456").startsWith("password-hash-"));
+		Assertions.assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+	}
+
+	@Test
+	public void encodeShouldRejectWhenQueueIsFull() throws Exception {
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+		waitUntil(() -> meterRegistry.get("executor.active").gauge().value() == 1.0);
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+		waitUntil(() -> meterRegistry.get("executor.queued").gauge().value() == 1.0);
+
+		Assertions.assertThrows(RejectedExecutionException.class, () -> encoder.encode("c"));
+		Assertions.assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+
+		release.countDown();
+		Assertions.assertNotNull(running.get(5, TimeUnit.SECONDS));
+		Assertions.assertNotNull(queued.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void passwordEncoderShouldMatchLegacyBcryptHashAndUpgradeIt() {
+		AppConfig config = new AppConfig();
+		ReflectionTestUtils.setField(config, "encoderId", "argon2");
+		ReflectionTestUtils.setField(config, "bcryptStrength", 4);
+		ReflectionTestUtils.setField(config, "hashingThreads", 1);
+		ReflectionTestUtils.setField(config, "hashingQueueCapacity", 1);
+		PasswordEncoder passwordEncoder = config.passwordEncoder(new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+		String legacy = new BCryptPasswordEncoder(4).encode("123456");
+
+		Assertions.assertTrue(passwordEncoder.matches("123456", legacy));
+		Assertions.assertTrue(passwordEncoder.upgradeEncoding(legacy));
+
+		String upgraded = passwordEncoder.encode("123456");
+		Assertions.assertTrue(upgraded.startsWith("{argon2}"));
+		Assertions.assertTrue(passwordEncoder.matches("123456", upgraded));
+		Assertions.assertFalse(passwordEncoder.upgradeEncoding(upgraded));
+		((BoundedPasswordEncoder) passwordEncoder).destroy();
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			Assertions.assertTrue(System.nanoTime() < deadline, "Timed out waiting for the hashing pool");
+			Thread.sleep(5);
+		}
+	}
+
+	private static class BlockingEncoder implements PasswordEncoder {
+
+		private final CountDownLatch release;
+
+		BlockingEncoder(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			try {
+				release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return Thread.currentThread().getName();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+public class CachingJwtDecoderTests {
+	
+	@Mock
+	private JwtDecoder delegate;
+	
+	private MutableClock clock;
+	private MeterRegistry meterRegistry;
+	private CachingJwtDecoder decoder;
+	private String token;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+		meterRegistry = new SimpleMeterRegistry();
+		decoder = new CachingJwtDecoder(delegate, 100, Duration.ofHours(1), meterRegistry, clock);
+		token = "header.payload.signature";
+		Mockito.when(delegate.decode(token)).thenReturn(jwt(token, clock.instant().plusSeconds(60)));
+		Mockito.when(delegate.decode("invalid")).thenThrow(new BadJwtException("invalid"));
+	}
+	
+	@Test
+	public void decodeShouldCallDelegateOnceWhenTokenIsReused() {
+		Jwt first = decoder.decode(token);
+		Jwt second = decoder.decode(token);
+		
+		Assertions.assertSame(first, second);
+		Mockito.verify(delegate, Mockito.times(1)).decode(token);
+		Assertions.assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwtDecoder").tag("result", "hit").functionCounter().count());
+	}
+	
+	@Test
+	public void decodeShouldCallDelegateAgainWhenCachedTokenHasExpired() {
+		decoder.decode(token);
+		clock.advance(Duration.ofSeconds(61));
+		Mockito.when(delegate.decode(token)).thenThrow(new BadJwtException("expired"));
+		
+		Assertions.assertThrows(BadJwtException.class, () -> decoder.decode(token));
+		Mockito.verify(delegate, Mockito.times(2)).decode(token);
+	}
+	
+	@Test
+	public void decodeShouldNotCacheFailures() {
+		Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("invalid"));
+		Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("invalid"));
+		
+		Mockito.verify(delegate, Mockito.times(2)).decode("invalid");
+	}
+	
+	private static Jwt jwt(String token, Instant expiresAt) {
+		return Jwt.withTokenValue(token)
+				.header("alg", "RS256")
+				.claim("username", "maria@gmail.com")
+				.issuedAt(expiresAt.minusSeconds(120))
+				.expiresAt(expiresAt)
+				.build();
+	}
+	
+	private static class MutableClock extends Clock {
+		
+		private Instant instant;
+		
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+		
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
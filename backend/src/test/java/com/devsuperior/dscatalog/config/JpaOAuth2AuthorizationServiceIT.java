@@ -0,0 +1,105 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Instant;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dscatalog.repositories.AuthorizationRepository;
+import com.devsuperior.dscatalog.tests.TokenUtil;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class JpaOAuth2AuthorizationServiceIT {
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private TokenUtil tokenUtil;
+	
+	@Autowired
+	private OAuth2AuthorizationService authorizationService;
+	
+	@Autowired
+	private RegisteredClientRepository registeredClientRepository;
+	
+	@Autowired
+	private AuthorizationRepository repository;
+	
+	@Value("${security.client-id}")
+	private String clientId;
+	
+	private String username, password;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		username = "maria@gmail.com";
+		password = "123456";
+	}
+	
+	@Test
+	public void findByTokenShouldReturnStoredAuthorizationWhenUserLogged() throws Exception {
+		String token = tokenUtil.obtainAccessToken(mockMvc, username, password);
+		
+		OAuth2Authorization authorization = authorizationService.findByToken(token, OAuth2TokenType.ACCESS_TOKEN);
+		
+		Assertions.assertInstanceOf(JpaOAuth2AuthorizationService.class, authorizationService);
+		Assertions.assertNotNull(authorization);
+		Assertions.assertEquals(token, authorization.getAccessToken().getToken().getTokenValue());
+		Assertions.assertFalse(authorization.getAccessToken().isInvalidated());
+		Assertions.assertEquals(username, authorization.getAccessToken().getClaims().get("username"));
+		Assertions.assertInstanceOf(Instant.class, authorization.getAccessToken().getClaims().get("exp"));
+		Assertions.assertNull(authorizationService.findByToken(token, OAuth2TokenType.REFRESH_TOKEN));
+	}
+	
+	@Test
+	public void saveShouldPersistInvalidatedFlag() throws Exception {
+		String token = tokenUtil.obtainAccessToken(mockMvc, username, password);
+		OAuth2Authorization authorization = authorizationService.findByToken(token, null);
+		
+		authorizationService.save(OAuth2Authorization.from(authorization)
+				.token(authorization.getAccessToken().getToken(), metadata -> metadata.put(OAuth2Authorization.Token.INVALIDATED_METADATA_NAME, true))
+				.build());
+		
+		Assertions.assertTrue(authorizationService.findById(authorization.getId()).getAccessToken().isInvalidated());
+	}
+	
+	@Test
+	public void sweepExpiredShouldDeleteOnlyExpiredAuthorizations() {
+		Instant now = Instant.now();
+		authorizationService.save(authorization("expired", now.minusSeconds(120), now.minusSeconds(60)));
+		authorizationService.save(authorization("live", now.minusSeconds(60), now.plusSeconds(60)));
+		
+		((JpaOAuth2AuthorizationService) authorizationService).sweepExpired();
+		
+		Assertions.assertNull(authorizationService.findByToken("expired", null));
+		Assertions.assertNotNull(authorizationService.findByToken("live", null));
+		Assertions.assertEquals(1L, repository.count());
+	}
+	
+	private OAuth2Authorization authorization(String tokenValue, Instant issuedAt, Instant expiresAt) {
+		OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue, issuedAt, expiresAt, Set.of("read"));
+		return OAuth2Authorization.withRegisteredClient(registeredClientRepository.findByClientId(clientId))
+				.principalName(clientId)
+				.authorizationGrantType(new AuthorizationGrantType("password"))
+				.authorizedScopes(Set.of("read"))
+				.accessToken(accessToken)
+				.build();
+	}
+}
@@ -0,0 +1,80 @@
+package com.devsuperior.dscatalog.config;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+public class JwtSigningKeysTests {
+	
+	private JWK oldKey;
+	private JWK newKey;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		oldKey = new RSAKeyGenerator(2048).keyID("old").generate();
+		newKey = new ECKeyGenerator(Curve.P_256).keyID("new").generate();
+	}
+	
+	@Test
+	public void loadShouldSignWithActiveKeyAndVerifyWithRetiredKey() {
+		JwtSigningKeys before = JwtSigningKeys.load(resource(new JWKSet(List.of(oldKey, newKey))), "old");
+		String oldToken = encode(before);
+		
+		JwtSigningKeys after = JwtSigningKeys.load(resource(new JWKSet(List.of(newKey, oldKey.toPublicJWK()))), "new");
+		String newToken = encode(after);
+		
+		Assertions.assertEquals(SignatureAlgorithm.RS256, before.getAlgorithm());
+		Assertions.assertEquals(SignatureAlgorithm.ES256, after.getAlgorithm());
+		Assertions.assertEquals("old", OAuth2AuthorizationServerConfiguration.jwtDecoder(after.jwkSource()).decode(oldToken).getHeaders().get("kid"));
+		Assertions.assertEquals("new", OAuth2AuthorizationServerConfiguration.jwtDecoder(after.jwkSource()).decode(newToken).getHeaders().get("kid"));
+	}
+	
+	@Test
+	public void loadShouldUseFirstPrivateKeyWhenNoKeyIdGiven() {
+		JwtSigningKeys keys = JwtSigningKeys.load(resource(new JWKSet(List.of(oldKey.toPublicJWK(), newKey))), "");
+		
+		Assertions.assertEquals("new", keys.getKeyId());
+	}
+	
+	@Test
+	public void loadShouldThrowWhenActiveKeyHasNoPrivatePart() {
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			JwtSigningKeys.load(resource(new JWKSet(List.of(oldKey.toPublicJWK(), newKey))), "old");
+		});
+	}
+	
+	@Test
+	public void generateShouldCreateEcKeyWhenTypeIsEc() {
+		JwtSigningKeys keys = JwtSigningKeys.generate("EC");
+		
+		Assertions.assertEquals(SignatureAlgorithm.ES256, keys.getAlgorithm());
+		Assertions.assertNotNull(OAuth2AuthorizationServerConfiguration.jwtDecoder(keys.jwkSource()).decode(encode(keys)));
+	}
+	
+	private static String encode(JwtSigningKeys keys) {
+		JwsHeader header = JwsHeader.with(keys.getAlgorithm()).keyId(keys.getKeyId()).build();
+		JwtClaimsSet claims = JwtClaimsSet.builder().subject("maria@gmail.com").expiresAt(Instant.now().plusSeconds(60)).build();
+		return new NimbusJwtEncoder(keys.jwkSource()).encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+	}
+	
+	private static ByteArrayResource resource(JWKSet jwkSet) {
+		return new ByteArrayResource(jwkSet.toString(false).getBytes(StandardCharsets.UTF_8));
+	}
+}
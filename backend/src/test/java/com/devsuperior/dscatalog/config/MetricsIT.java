@@ -0,0 +1,61 @@
+package com.devsuperior.dscatalog.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.devsuperior.dscatalog.tests.TokenUtil;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsIT {
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private TokenUtil tokenUtil;
+	
+	private String username, password;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		username = "maria@gmail.com";
+		password = "123456";
+	}
+	
+	@Test
+	public void prometheusShouldExposeRequestHashingPoolAndHibernateMetricsWhenAdminLogged() throws Exception {
+		String token = tokenUtil.obtainAccessToken(mockMvc, username, password);
+		mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", 1L).accept(MediaType.APPLICATION_JSON))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		String body = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")
+				.header("Authorization", "Bearer " + token))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		
+		Assertions.assertTrue(body.contains("http_server_requests_seconds_bucket{"));
+		Assertions.assertTrue(body.contains("uri=\"/products/{id}\""));
+		Assertions.assertTrue(body.contains("uri=\"/oauth2/token\""));
+		Assertions.assertTrue(body.contains("password_hashing_seconds_bucket{"));
+		Assertions.assertTrue(body.contains("hikaricp_connections_pending{"));
+		Assertions.assertTrue(body.contains("hibernate_query_executions_total{"));
+		Assertions.assertTrue(body.contains("db_statements_seconds_count{"));
+	}
+	
+	@Test
+	public void prometheusShouldReturnUnauthorizedWhenNoTokenGiven() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+				.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+	}
+}
@@ -0,0 +1,98 @@
+package com.devsuperior.dscatalog.config;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RateLimitFilterTests {
+
+	private MeterRegistry meterRegistry;
+	private RateLimitFilter filter;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		meterRegistry = new SimpleMeterRegistry();
+		filter = new RateLimitFilter(new RateLimiter(3, Duration.ofSeconds(60), 100),
+				new RateLimiter(1, Duration.ofSeconds(60), 100),
+				new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+	}
+
+	@Test
+	public void doFilterShouldReturnTooManyRequestsWhenAccountLimitExceeded() throws Exception {
+		MockHttpServletResponse first = recoverToken("10.0.0.1", "Maria@gmail.com");
+		MockHttpServletResponse second = recoverToken("10.0.0.2", "maria@gmail.com ");
+
+		Assertions.assertEquals(200, first.getStatus());
+		Assertions.assertEquals(429, second.getStatus());
+		Assertions.assertEquals("60", second.getHeader("Retry-After"));
+		Assertions.assertEquals(1.0, meterRegistry.get("http.rate-limit.rejected").tag("scope", "account").counter().count());
+	}
+
+	@Test
+	public void doFilterShouldReturnTooManyRequestsWhenAddressLimitExceeded() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertEquals(200, recoverToken("10.0.0.1", "user" + i + "@gmail.com").getStatus());
+		}
+
+		MockHttpServletResponse response = recoverToken("10.0.0.1", "other@gmail.com");
+
+		Assertions.assertEquals(429, response.getStatus());
+		Assertions.assertEquals(1.0, meterRegistry.get("http.rate-limit.rejected").tag("scope", "ip").counter().count());
+	}
+
+	@Test
+	public void doFilterShouldPassReadableBodyDownstream() throws Exception {
+		MockHttpServletRequest request = post("10.0.0.1");
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent("{\"email\":\"maria@gmail.com\"}".getBytes(StandardCharsets.UTF_8));
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+		Assertions.assertEquals("{\"email\":\"maria@gmail.com\"}", body);
+	}
+
+	@Test
+	public void doFilterShouldRejectBodyLongerThanBufferWithoutCallingChain() throws Exception {
+		String content = "{\"email\":\"maria@gmail.com\",\"padding\":\"" + "x".repeat(10_000) + "\"}";
+		MockHttpServletRequest request = post("10.0.0.1");
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent(content.getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, response, chain);
+
+		Assertions.assertEquals(413, response.getStatus());
+		Assertions.assertNull(chain.getRequest());
+	}
+
+	private MockHttpServletResponse recoverToken(String address, String email) throws Exception {
+		MockHttpServletRequest request = post(address);
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent(("{\"email\":\"" + email + "\"}").getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private MockHttpServletRequest post(String address) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/recover-token");
+		request.setRemoteAddr(address);
+		return request;
+	}
+}
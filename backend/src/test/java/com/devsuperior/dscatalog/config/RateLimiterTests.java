@@ -0,0 +1,65 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTests {
+
+	private AtomicLong clock;
+	private RateLimiter limiter;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		clock = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+		limiter = new RateLimiter(5, Duration.ofSeconds(60), 100, clock::get);
+	}
+
+	@Test
+	public void tryAcquireShouldAdmitBurstThenReturnWaitUntilNextToken() {
+		for (int i = 0; i < 5; i++) {
+			Assertions.assertEquals(0, limiter.tryAcquire("maria@gmail.com"));
+		}
+
+		long wait = limiter.tryAcquire("maria@gmail.com");
+
+		Assertions.assertEquals(TimeUnit.SECONDS.toNanos(12), wait);
+		Assertions.assertEquals(0, limiter.tryAcquire("alex@gmail.com"));
+	}
+
+	@Test
+	public void tryAcquireShouldRefillOneTokenPerEmissionInterval() {
+		for (int i = 0; i < 5; i++) {
+			limiter.tryAcquire("maria@gmail.com");
+		}
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(12));
+
+		Assertions.assertEquals(0, limiter.tryAcquire("maria@gmail.com"));
+		Assertions.assertTrue(limiter.tryAcquire("maria@gmail.com") > 0);
+	}
+
+	@Test
+	public void tryAcquireShouldAdmitExactlyLimitUnderContention() throws Exception {
+		AtomicLong admitted = new AtomicLong();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = Thread.ofVirtual().start(() -> {
+				for (int j = 0; j < 100; j++) {
+					if (limiter.tryAcquire("maria@gmail.com") == 0) {
+						admitted.incrementAndGet();
+					}
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Assertions.assertEquals(5, admitted.get());
+	}
+}
@@ -0,0 +1,88 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+public class ReplicaRouterTests {
+
+	private HikariDataSource primary;
+	private HikariDataSource replica1;
+	private HikariDataSource replica2;
+	private ReplicaRouter router;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		primary = pool("primary");
+		replica1 = pool("replica-1");
+		replica2 = pool("replica-2");
+		for (HikariDataSource replica : List.of(replica1, replica2)) {
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+			jdbcTemplate.execute("CREATE TABLE tb_replica_lag (lag_ms BIGINT)");
+			jdbcTemplate.update("INSERT INTO tb_replica_lag VALUES (0)");
+		}
+		router = new ReplicaRouter(primary, List.of(replica1, replica2), Duration.ofMillis(1000),
+				"SELECT lag_ms FROM tb_replica_lag", Duration.ofSeconds(5), null);
+		router.refreshLag();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		router.destroy();
+	}
+
+	@Test
+	public void routeShouldAlternateReplicasForReadOnlyTransactions() {
+		DataSource first = router.route();
+		DataSource second = router.route();
+
+		Assertions.assertNotSame(first, second);
+		Assertions.assertNotSame(primary, first);
+		Assertions.assertNotSame(primary, second);
+		Assertions.assertSame(first, router.route());
+		Assertions.assertSame(second, router.route());
+	}
+
+	@Test
+	public void routeShouldSkipLaggingReplica() {
+		new JdbcTemplate(replica1).update("UPDATE tb_replica_lag SET lag_ms = 5000");
+		router.refreshLag();
+
+		for (int i = 0; i < 4; i++) {
+			Assertions.assertSame(replica2, router.route());
+		}
+	}
+
+	@Test
+	public void routeShouldReturnPrimaryWhenTransactionIsNotReadOnly() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+		Assertions.assertSame(primary, router.route());
+	}
+
+	@Test
+	public void routeShouldReturnPrimaryOnlyInsideReadFromPrimary() {
+		Assertions.assertSame(primary, ReplicaRouter.readFromPrimary(() -> router.route()));
+		Assertions.assertNotSame(primary, router.route());
+	}
+
+	private static HikariDataSource pool(String name) {
+		HikariDataSource pool = new HikariDataSource();
+		pool.setJdbcUrl("jdbc:h2:mem:router-" + name);
+		pool.setUsername("sa");
+		pool.setPoolName(name);
+		return pool;
+	}
+}
@@ -0,0 +1,117 @@
+package com.devsuperior.dscatalog.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.CategoryService;
+import com.devsuperior.dscatalog.services.ProductJsonCache;
+import com.devsuperior.dscatalog.services.ProductService;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing-primary",
+		"catalog.datasource.replicas.enabled=true",
+		"catalog.datasource.replicas.urls=" + ReplicaRoutingIT.REPLICA_URL,
+		"catalog.datasource.replicas.lag-query=SELECT lag_ms FROM tb_replica_lag",
+		"catalog.datasource.replicas.lag-check-interval-ms=3600000",
+		"catalog.datasource.replicas.max-lag-ms=1000"})
+public class ReplicaRoutingIT {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private ReplicaRouter router;
+
+	@Autowired
+	private ProductJsonCache productJsonCache;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private JdbcTemplate primary;
+
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// outside a transaction the routing DataSource serves the primary
+		replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+		replica.execute("DROP ALL OBJECTS");
+		for (String statement : primary.queryForList("SCRIPT NOPASSWORDS NOSETTINGS", String.class)) {
+			replica.execute(statement);
+		}
+		replica.update("UPDATE tb_product SET name = CONCAT(name, ' (replica)')");
+		replica.update("UPDATE tb_category SET name = CONCAT(name, ' (replica)')");
+		replica.execute("CREATE TABLE tb_replica_lag (lag_ms BIGINT)");
+		replica.update("INSERT INTO tb_replica_lag VALUES (0)");
+		router.refreshLag();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void readOnlyTransactionShouldReadFromReplica() {
+		Assertions.assertEquals("The Lord of the Rings (replica)", service.findById(1L).getName());
+	}
+
+	@Test
+	public void readOnlyTransactionShouldReadFromPrimaryWhenReplicaLags() {
+		replica.update("UPDATE tb_replica_lag SET lag_ms = 60000");
+		router.refreshLag();
+
+		Assertions.assertEquals("The Lord of the Rings", service.findById(1L).getName());
+	}
+
+	@Test
+	public void readOnlyTransactionShouldReadFromPrimaryWhenReplicaIsUnreachable() {
+		replica.execute("DROP TABLE tb_replica_lag");
+		router.refreshLag();
+
+		Assertions.assertEquals("The Lord of the Rings", service.findById(1L).getName());
+	}
+
+	@Test
+	public void writerShouldReadOwnWriteFromPrimaryWhileOthersReadReplica() {
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("maria@gmail.com", null, "ROLE_ADMIN"));
+		ProductDTO dto = service.findById(2L);
+		dto.setName("Smart TV 4K");
+		service.update(2L, dto);
+
+		Assertions.assertEquals("Smart TV 4K", service.findById(2L).getName());
+		Assertions.assertEquals("Smart TV 4K", primary.queryForObject("SELECT name FROM tb_product WHERE id = 2", String.class));
+
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alex@gmail.com", null, "ROLE_OPERATOR"));
+		Assertions.assertEquals("Smart TV (replica)", service.findById(2L).getName());
+	}
+
+	@Test
+	public void cacheLoadAfterUpdateShouldReadFromPrimaryForAnonymousCaller() {
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("maria@gmail.com", null, "ROLE_ADMIN"));
+		ProductDTO dto = service.findById(3L);
+		dto.setName("Macbook Pro M3");
+		service.update(3L, dto);
+		SecurityContextHolder.clearContext();
+
+		String json = new String(productJsonCache.get(3L).getBody(), StandardCharsets.UTF_8);
+		Assertions.assertTrue(json.contains("\"Macbook Pro M3\""), json);
+		Assertions.assertFalse(json.contains("(replica)"), json);
+		Assertions.assertFalse(categoryService.findById(1L).getName().contains("(replica)"));
+	}
+}
@@ -0,0 +1,52 @@
+package com.devsuperior.dscatalog.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class VirtualThreadPinningMonitorTests {
+
+	private MeterRegistry meterRegistry;
+	private VirtualThreadPinningMonitor monitor;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		meterRegistry = new SimpleMeterRegistry();
+		monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(5), meterRegistry);
+		monitor.start();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		monitor.stop();
+	}
+
+	@Test
+	public void monitorShouldRecordVirtualThreadBlockedInsideSynchronized() throws Exception {
+		Object lock = new Object();
+		Thread.ofVirtual().start(() -> {
+			synchronized (lock) {
+				try {
+					Thread.sleep(50);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}).join();
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (meterRegistry.get("jvm.threads.virtual.pinned").timer().count() == 0) {
+			Assertions.assertTrue(System.nanoTime() < deadline, "No pinned event recorded");
+			Thread.sleep(50);
+		}
+		Assertions.assertTrue(meterRegistry.get("jvm.threads.virtual.pinned").timer().totalTime(TimeUnit.MILLISECONDS) >= 40);
+	}
+}
@@ -1,5 +1,6 @@
 package com.devsuperior.dscatalog.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Assertions;
@@ -7,8 +8,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
+import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.projections.ProductProjection;
 import com.devsuperior.dscatalog.tests.Factory;
 
 
@@ -59,4 +65,50 @@ public class ProductRepositoryTests {
 		Assertions.assertFalse(result.isPresent());
 		
 	}
+	
+	@Test
+	public void searchProductPageShouldMatchTwoStepSearch() {
+		PageRequest pageable = PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "name"));
+		
+		Page<ProductDTO> result = repository.searchProductPage(List.of(), "", pageable);
+		
+		Page<ProductProjection> expected = repository.searchProduct(List.of(), "", pageable);
+		Assertions.assertEquals(expected.getTotalElements(), result.getTotalElements());
+		Assertions.assertEquals(expected.getContent().stream().map(x -> x.getId()).toList(),
+				result.getContent().stream().map(x -> x.getId()).toList());
+		for (ProductDTO dto : result.getContent()) {
+			Product entity = repository.findById(dto.getId()).get();
+			Assertions.assertEquals(entity.getName(), dto.getName());
+			Assertions.assertEquals(entity.getPrice(), dto.getPrice());
+			Assertions.assertEquals(entity.getDate(), dto.getDate());
+			Assertions.assertEquals(entity.getCategories().size(), dto.getCategories().size());
+		}
+		Assertions.assertTrue(result.hasNext());
+	}
+	
+	@Test
+	public void searchProductPageShouldFilterByCategoryAndName() {
+		Page<ProductDTO> result = repository.searchProductPage(List.of(3L), "gamer", PageRequest.of(0, 12, Sort.by("name")));
+		
+		Assertions.assertEquals(21L, result.getTotalElements());
+		Assertions.assertEquals(12, result.getContent().size());
+		Assertions.assertTrue(result.getContent().stream().allMatch(x -> x.getName().startsWith("PC Gamer")));
+	}
+	
+	@Test
+	public void searchProductPageShouldReturnEveryCategoryOfEachProduct() {
+		Page<ProductDTO> result = repository.searchProductPage(List.of(1L), "", PageRequest.of(0, 12));
+		
+		Assertions.assertEquals(1, result.getContent().size());
+		Assertions.assertEquals(2L, result.getContent().get(0).getId());
+		Assertions.assertEquals(List.of(1L, 3L), result.getContent().get(0).getCategories().stream().map(x -> x.getId()).toList());
+	}
+	
+	@Test
+	public void searchProductPageShouldReturnTotalWhenPageIsPastTheEnd() {
+		Page<ProductDTO> result = repository.searchProductPage(List.of(), "", PageRequest.of(10, 12));
+		
+		Assertions.assertTrue(result.getContent().isEmpty());
+		Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+	}
 }
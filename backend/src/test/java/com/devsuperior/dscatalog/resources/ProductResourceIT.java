@@ -2,7 +2,10 @@ package com.devsuperior.dscatalog.resources;
 
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.LongStream;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,8 +21,12 @@ import org.springframework.transaction.annotation.Transactional;
 import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.tests.Factory;
 import com.devsuperior.dscatalog.tests.TokenUtil;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 @Transactional
@@ -34,6 +41,9 @@ public class ProductResourceIT {
 	@Autowired
 	private TokenUtil tokenUtil;
 	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
 	private Long existingId;
 	private Long nonExistingId;
 	private Long countTotalProducts;
@@ -60,12 +70,189 @@ public class ProductResourceIT {
 		
 		result.andExpect(MockMvcResultMatchers.status().isOk());
 		result.andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(countTotalProducts));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.countStrategy").value("INDEX"));
 		result.andExpect(MockMvcResultMatchers.jsonPath("$.content").exists());
 		result.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Macbook Pro"));
 		result.andExpect(MockMvcResultMatchers.jsonPath("$.content[1].name").value("PC Gamer"));
 		result.andExpect(MockMvcResultMatchers.jsonPath("$.content[2].name").value("PC Gamer Alfa"));	
 	}
 	
+	@Test
+	public void findAllAfterShouldWalkSlicesWithCursor() throws Exception {
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/products?after=&size=2&name=gamer")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(MockMvcResultMatchers.status().isOk());
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist());
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.hasNext").value(true));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("PC Gamer"));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.content[1].name").value("PC Gamer Alfa"));
+		
+		String json = result.andReturn().getResponse().getContentAsString();
+		String cursor = objectMapper.readTree(json).get("nextCursor").asText();
+		
+		result = mockMvc.perform(MockMvcRequestBuilders.get("/products?size=2&name=gamer&after={cursor}", cursor)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(MockMvcResultMatchers.status().isOk());
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("PC Gamer Boo"));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.content[1].name").value("PC Gamer Card"));
+	}
+	
+	@Test
+	public void findAllAfterShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/products?after=invalid&sort=id")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void findBatchShouldReturnProductsInRequestOrderAndMissingIds() throws Exception {
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/products/batch?ids=3,{nonExistingId},1", nonExistingId)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(MockMvcResultMatchers.status().isOk());
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.products.length()").value(2));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.products[0].id").value(3L));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.products[1].id").value(existingId));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.products[1].categories").exists());
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.missingIds[0]").value(nonExistingId));
+	}
+	
+	@Test
+	public void findBatchPostShouldReturnBadRequestWhenTooManyIds() throws Exception {
+		List<Long> ids = LongStream.rangeClosed(1, 201).boxed().toList();
+		
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/products/batch")
+				.content(objectMapper.writeValueAsString(ids))
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void exportShouldStreamEveryProductAsNdjsonWhenAdminLogged() throws Exception {
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/products/export")
+				.header("Authorization", "Bearer " + bearerToken));
+		
+		result.andExpect(MockMvcResultMatchers.status().isOk());
+		result.andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson;charset=UTF-8"));
+		
+		String[] lines = result.andReturn().getResponse().getContentAsString().split("\n");
+		Assertions.assertEquals(countTotalProducts, lines.length);
+		Assertions.assertEquals(existingId, objectMapper.readTree(lines[0]).get("id").asLong());
+		Assertions.assertEquals(1, objectMapper.readTree(lines[0]).get("categories").size());
+	}
+	
+	@Test
+	public void exportShouldReturnOnlyChangedProductsWhenUpdatedSinceIsGiven() throws Exception {
+		Instant since = Instant.now();
+		mockMvc.perform(MockMvcRequestBuilders.put("/products/{id}", existingId)
+				.header("Authorization", "Bearer " + bearerToken)
+				.content(objectMapper.writeValueAsString(dto))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/products/export?format=csv&updatedSince={since}", since)
+				.header("Authorization", "Bearer " + bearerToken));
+		
+		result.andExpect(MockMvcResultMatchers.status().isOk());
+		String[] lines = result.andReturn().getResponse().getContentAsString().split("\n");
+		Assertions.assertEquals(2, lines.length);
+		Assertions.assertTrue(lines[1].startsWith(existingId + ","));
+	}
+	
+	@Test
+	public void exportShouldReturnProductsOfRenamedCategoryWhenUpdatedSinceIsGiven() throws Exception {
+		Instant since = Instant.now();
+		mockMvc.perform(MockMvcRequestBuilders.put("/categories/{id}", 2L)
+				.header("Authorization", "Bearer " + bearerToken)
+				.content("{\"name\":\"Books\"}")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/products/export?updatedSince={since}", since)
+				.header("Authorization", "Bearer " + bearerToken));
+		
+		String[] lines = result.andReturn().getResponse().getContentAsString().split("\n");
+		Assertions.assertEquals(2, lines.length);
+		Assertions.assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+		Assertions.assertEquals(5L, objectMapper.readTree(lines[1]).get("id").asLong());
+		Assertions.assertEquals("Books", objectMapper.readTree(lines[0]).get("categories").get(0).get("name").asText());
+	}
+	
+	@Test
+	public void exportShouldReturnUnauthorizedWhenNoTokenGiven() throws Exception {
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/products/export"));
+		
+		result.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+	}
+	
+	@Test
+	public void importShouldInsertValidRowsAndReportInvalidOnes() throws Exception {
+		Instant since = Instant.now();
+		String body = """
+				{"name":"Imported Phone","description":"Phone","price":900.0,"date":"2020-07-14T10:00:00Z","categories":[{"id":2}]}
+				{"name":"","description":"Phone","price":900.0,"categories":[{"id":2}]}
+				{"name":"Imported Tablet","description":"Tablet","price":1200.0,"categories":[{"id":99}]}
+				not json
+				{"name":"Imported Laptop","description":"Laptop","price":3000.0,"categories":[{"id":2},{"id":3}]}
+				""";
+		
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/products/import")
+				.header("Authorization", "Bearer " + bearerToken)
+				.content(body)
+				.contentType("application/x-ndjson"));
+		
+		result.andExpect(MockMvcResultMatchers.status().isOk());
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.received").value(5));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(2));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(3));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].row").value(2));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].row").value(3));
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.errors[2].row").value(4));
+		
+		result = mockMvc.perform(MockMvcRequestBuilders.get("/products/export?updatedSince={since}", since)
+				.header("Authorization", "Bearer " + bearerToken));
+		
+		String[] lines = result.andReturn().getResponse().getContentAsString().split("\\n");
+		Assertions.assertEquals(2, lines.length);
+		JsonNode phone = objectMapper.readTree(lines[0]);
+		JsonNode laptop = objectMapper.readTree(lines[1]);
+		Assertions.assertEquals("Imported Phone", phone.get("name").asText());
+		Assertions.assertEquals("2020-07-14T10:00:00Z", phone.get("date").asText());
+		Assertions.assertEquals("Imported Laptop", laptop.get("name").asText());
+		Assertions.assertEquals(2, laptop.get("categories").size());
+	}
+	
+	@Test
+	public void importShouldReadCsvWithQuotedFields() throws Exception {
+		Instant since = Instant.now();
+		String body = """
+				name,description,price,date,categoryIds
+				"Imported, Quoted","Line one
+				line ""two\"\"",10.5,2020-07-14T10:00:00Z,1|3
+				""";
+		
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/products/import?format=csv")
+				.header("Authorization", "Bearer " + bearerToken)
+				.content(body)
+				.contentType("text/csv"));
+		
+		result.andExpect(MockMvcResultMatchers.status().isOk());
+		result.andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(1));
+		
+		result = mockMvc.perform(MockMvcRequestBuilders.get("/products/export?updatedSince={since}", since)
+				.header("Authorization", "Bearer " + bearerToken));
+		
+		JsonNode product = objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+		Assertions.assertEquals("Imported, Quoted", product.get("name").asText());
+		Assertions.assertEquals("Line one\nline \"two\"", product.get("description").asText());
+		Assertions.assertEquals(2, product.get("categories").size());
+	}
+	
 	@Test
 	public void updateShouldReturnProductDTOWhenIdExists() throws Exception {
 		
@@ -106,4 +293,20 @@ public class ProductResourceIT {
 		
 		result.andExpect(MockMvcResultMatchers.status().isNotFound());
 	}
+	
+	@Test
+	public void findByIdShouldRecordStatementsTaggedWithEndpointAndRepositoryMethod() throws Exception {
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", nonExistingId)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(MockMvcResultMatchers.status().isNotFound());
+		Timer timer = meterRegistry.find("db.statements")
+				.tag("endpoint", "GET /products/{id}")
+				.tag("repository", "ProductRepository.findWithCategoriesById")
+				.tag("type", "select")
+				.timer();
+		Assertions.assertNotNull(timer);
+		Assertions.assertTrue(timer.count() > 0);
+		Assertions.assertNotNull(meterRegistry.find("db.request.statements").tag("endpoint", "GET /products/{id}").summary());
+	}
 }
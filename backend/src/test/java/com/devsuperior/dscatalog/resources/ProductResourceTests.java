@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
@@ -19,6 +20,9 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.ProductExportService;
+import com.devsuperior.dscatalog.services.ProductImportService;
+import com.devsuperior.dscatalog.services.ProductJsonCache;
 import com.devsuperior.dscatalog.services.ProductService;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscatalog.tests.Factory;
@@ -26,6 +30,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 
 @WebMvcTest(value = ProductResource.class, excludeAutoConfiguration = {SecurityAutoConfiguration.class})
+@Import(ProductJsonCache.class)
 public class ProductResourceTests {
 	
 	@Autowired
@@ -37,6 +42,12 @@ public class ProductResourceTests {
 	@MockBean
 	private ProductService service;
 	
+	@MockBean
+	private ProductExportService exportService;
+	
+	@MockBean
+	private ProductImportService importService;
+	
 	//fixtures
 	private long existingId;
 	private long nonExistingId;
@@ -136,6 +147,20 @@ public class ProductResourceTests {
 		result.andExpect(MockMvcResultMatchers.jsonPath("$.categories").exists());
 		
 	}
+	@Test
+	public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", existingId)
+				.accept(MediaType.APPLICATION_JSON));
+		String etag = result.andReturn().getResponse().getHeader("ETag");
+		
+		result = mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", existingId)
+				.header("If-None-Match", etag)
+				.accept(MediaType.APPLICATION_JSON));
+		result.andExpect(MockMvcResultMatchers.status().isNotModified());
+		result.andExpect(MockMvcResultMatchers.header().string("ETag", etag));
+		Mockito.verify(service, Mockito.atMost(1)).findById(existingId);
+	}
+	
 	@Test
 	public void findByIdShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
 		ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", nonExistingId)
@@ -0,0 +1,90 @@
+package com.devsuperior.dscatalog.services;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dscatalog.dto.NewPasswordDTO;
+import com.devsuperior.dscatalog.entities.PasswordRecover;
+import com.devsuperior.dscatalog.repositories.PasswordRecoverRepository;
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+
+@SpringBootTest
+@Transactional
+public class AuthServiceIT {
+
+	@Autowired
+	private AuthService service;
+
+	@Autowired
+	private PasswordRecoverRepository passwordRecoverRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private String existingEmail;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingEmail = "maria@gmail.com";
+	}
+
+	@Test
+	public void saveNewPasswordShouldAcceptTokenOnlyOnce() {
+		save("valid-token", Instant.now().plusSeconds(600));
+
+		service.saveNewPassword(new NewPasswordDTO("valid-token", "newpassword"));
+
+		Assertions.assertTrue(passwordEncoder.matches("newpassword", userRepository.findByEmail(existingEmail).getPassword()));
+		Assertions.assertTrue(passwordRecoverRepository.findByToken("valid-token").get().isUsed());
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.saveNewPassword(new NewPasswordDTO("valid-token", "otherpassword"));
+		});
+	}
+
+	@Test
+	public void saveNewPasswordShouldThrowResourceNotFoundExceptionWhenTokenExpired() {
+		save("expired-token", Instant.now().minusSeconds(1));
+
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.saveNewPassword(new NewPasswordDTO("expired-token", "newpassword"));
+		});
+	}
+
+	@Test
+	public void purgeExpiredTokensShouldDeleteOnlyExpiredTokens() {
+		AuthService target = AopTestUtils.getTargetObject(service);
+		Object chunkSize = ReflectionTestUtils.getField(target, "sweepChunkSize");
+		ReflectionTestUtils.setField(target, "sweepChunkSize", 2);
+		for (int i = 0; i < 5; i++) {
+			save("expired-" + i, Instant.now().minusSeconds(60));
+		}
+		save("valid-token", Instant.now().plusSeconds(600));
+
+		try {
+			service.purgeExpiredTokens();
+		}
+		finally {
+			ReflectionTestUtils.setField(target, "sweepChunkSize", chunkSize);
+		}
+
+		Assertions.assertEquals(1, passwordRecoverRepository.count());
+		Assertions.assertTrue(passwordRecoverRepository.findByToken("valid-token").isPresent());
+	}
+
+	private void save(String token, Instant expiration) {
+		passwordRecoverRepository.saveAndFlush(new PasswordRecover(null, token, existingEmail, expiration));
+	}
+}
@@ -0,0 +1,123 @@
+package com.devsuperior.dscatalog.services;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import com.devsuperior.dscatalog.config.CacheConfig;
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.tests.SqlAssertions;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// own database: the cache is only evicted after commit, so these tests commit and must not leave categories in testdb
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:categories")
+public class CategoryServiceIT {
+
+	@Autowired
+	private CategoryService service;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Long existingId;
+	private Long nonExistingId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 1L;
+		nonExistingId = 1000L;
+		cacheManager.getCache(CacheConfig.CATEGORIES).clear();
+		cacheManager.getCache(CacheConfig.CATEGORY).clear();
+	}
+
+	@Test
+	public void findAllShouldIssueNoStatementsWhenCached() {
+		List<CategoryDTO> first = service.findAll();
+
+		List<CategoryDTO> second = SqlAssertions.assertStatementsAtMost(0, () -> service.findAll());
+
+		Assertions.assertSame(first, second);
+	}
+
+	@Test
+	public void findByIdShouldIssueNoStatementsWhenCached() {
+		CategoryDTO first = service.findById(existingId);
+
+		CategoryDTO second = SqlAssertions.assertStatementsAtMost(0, () -> service.findById(existingId));
+
+		Assertions.assertSame(first, second);
+	}
+
+	@Test
+	public void findByIdShouldNotCacheMissingCategory() {
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> service.findById(nonExistingId));
+
+		Assertions.assertNull(cacheManager.getCache(CacheConfig.CATEGORY).get(nonExistingId));
+	}
+
+	@Test
+	public void insertShouldEvictCategoryList() {
+		List<CategoryDTO> before = service.findAll();
+
+		CategoryDTO inserted = service.insert(new CategoryDTO(null, "Games"));
+
+		List<CategoryDTO> after = service.findAll();
+		Assertions.assertEquals(before.size() + 1, after.size());
+		Assertions.assertTrue(after.stream().anyMatch(x -> x.getId().equals(inserted.getId())));
+
+		service.delete(inserted.getId());
+	}
+
+	@Test
+	public void updateShouldEvictCategoryListAndReplaceCachedCategory() {
+		Long id = service.insert(new CategoryDTO(null, "Games")).getId();
+		service.findAll();
+		service.findById(id);
+
+		service.update(id, new CategoryDTO(null, "Jogos"));
+
+		CategoryDTO cached = SqlAssertions.assertStatementsAtMost(0, () -> service.findById(id));
+		Assertions.assertEquals("Jogos", cached.getName());
+		Assertions.assertTrue(service.findAll().stream().anyMatch(x -> x.getId().equals(id) && x.getName().equals("Jogos")));
+
+		service.delete(id);
+	}
+
+	@Test
+	public void deleteShouldEvictCategoryListAndCategory() {
+		Long id = service.insert(new CategoryDTO(null, "Games")).getId();
+		int sizeWithCategory = service.findAll().size();
+		service.findById(id);
+
+		service.delete(id);
+
+		Assertions.assertEquals(sizeWithCategory - 1, service.findAll().size());
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> service.findById(id));
+	}
+
+	@Test
+	public void findByIdShouldRecordCacheMissThenHit() {
+		double hits = cacheGets("hit");
+		double misses = cacheGets("miss");
+
+		service.findById(existingId);
+		service.findById(existingId);
+
+		Assertions.assertEquals(misses + 1, cacheGets("miss"));
+		Assertions.assertEquals(hits + 1, cacheGets("hit"));
+	}
+
+	private double cacheGets(String result) {
+		return meterRegistry.get("cache.gets").tag("cache", CacheConfig.CATEGORY).tag("result", result).functionCounter().count();
+	}
+}
@@ -0,0 +1,114 @@
+package com.devsuperior.dscatalog.services;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsuperior.dscatalog.dto.EmailDTO;
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import com.devsuperior.dscatalog.entities.EmailStatus;
+import com.devsuperior.dscatalog.repositories.EmailOutboxRepository;
+import com.devsuperior.dscatalog.repositories.PasswordRecoverRepository;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+// own database: dispatchers of other cached test contexts poll testdb and would claim these rows
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:outbox",
+		"spring.mail.host=localhost",
+		"spring.mail.port=3025",
+		"spring.mail.properties.mail.smtp.starttls.enable=false",
+		"email.outbox.poll-interval-ms=3600000"})
+public class EmailOutboxDispatcherIT {
+
+	@Autowired
+	private EmailOutboxDispatcher dispatcher;
+
+	@Autowired
+	private EmailService emailService;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private EmailOutboxRepository repository;
+
+	@Autowired
+	private PasswordRecoverRepository passwordRecoverRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private GreenMail greenMail;
+	private String existingEmail;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		greenMail = new GreenMail(ServerSetupTest.SMTP);
+		greenMail.setUser("test@gmail.com", "123456");
+		greenMail.start();
+		existingEmail = "maria@gmail.com";
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		greenMail.stop();
+		repository.deleteAll();
+		passwordRecoverRepository.deleteAll();
+	}
+
+	@Test
+	public void createRecoverTokenShouldQueueEmailThatDispatcherDelivers() throws Exception {
+		long delivered = meterRegistry.get("email.outbox.delivery").timer().count();
+		authService.createRecoverToken(new EmailDTO(existingEmail));
+
+		Assertions.assertEquals(0, greenMail.getReceivedMessages().length);
+
+		dispatcher.dispatch();
+
+		Assertions.assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		Assertions.assertEquals(1, received.length);
+		Assertions.assertEquals(existingEmail, received[0].getAllRecipients()[0].toString());
+		List<EmailOutbox> outbox = repository.findAll();
+		Assertions.assertEquals(EmailStatus.SENT, outbox.get(0).getStatus());
+		Assertions.assertNotNull(outbox.get(0).getSentAt());
+		Assertions.assertEquals(delivered + 1, meterRegistry.get("email.outbox.delivery").timer().count());
+	}
+
+	@Test
+	public void dispatchShouldScheduleRetryWhenSmtpServerIsDown() {
+		emailService.sendEmail(existingEmail, "Subject", "Body");
+		greenMail.stop();
+
+		dispatcher.dispatch();
+
+		EmailOutbox email = repository.findAll().get(0);
+		Assertions.assertEquals(EmailStatus.PENDING, email.getStatus());
+		Assertions.assertEquals(1, email.getAttempts());
+		Assertions.assertNotNull(email.getLastError());
+		Assertions.assertTrue(email.getNextAttemptAt().isAfter(Instant.now()));
+	}
+
+	@Test
+	public void dispatchShouldSendManyEmailsAcrossConnections() {
+		for (int i = 0; i < 10; i++) {
+			emailService.sendEmail("user" + i + "@gmail.com", "Subject " + i, "Body");
+		}
+
+		dispatcher.dispatch();
+
+		Assertions.assertTrue(greenMail.waitForIncomingEmail(5000, 10));
+		Assertions.assertEquals(10, greenMail.getReceivedMessages().length);
+		Assertions.assertTrue(repository.findAll().stream().allMatch(x -> x.getStatus() == EmailStatus.SENT));
+	}
+}
@@ -0,0 +1,46 @@
+package com.devsuperior.dscatalog.services;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsuperior.dscatalog.dto.ProductImportResultDTO;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+
+// not @Transactional: each batch has to commit or roll back on its own; own database so the rows stay out of testdb
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:import",
+		"catalog.import.batch-size=4"})
+public class ProductImportServiceIT {
+
+	@Autowired
+	private ProductImportService service;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Test
+	public void importProductsShouldReportOnlyTheRowThatFailsInAFullBatch() throws Exception {
+		long countBefore = repository.count();
+		String body = """
+				{"name":"Imported Phone","description":"Phone","price":900.0,"categories":[{"id":1}]}
+				{"name":"Imported Tablet","description":"Tablet","price":1200.0,"categories":[{"id":1}]}
+				{"name":"Imported Laptop","description":"Laptop","price":3000.0,"imgUrl":"%s","categories":[{"id":3}]}
+				{"name":"Imported Monitor","description":"Monitor","price":800.0,"categories":[{"id":3}]}
+				""".formatted("x".repeat(300));
+
+		ProductImportResultDTO result = service.importProducts(ProductFileFormat.NDJSON,
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+		Assertions.assertEquals(4, result.getReceived());
+		Assertions.assertEquals(3, result.getImported());
+		Assertions.assertEquals(1, result.getFailed());
+		Assertions.assertEquals(3L, result.getErrors().get(0).getRow());
+		Assertions.assertTrue(result.getErrors().get(0).getMessage().startsWith("Insert failed: "));
+		Assertions.assertEquals(countBefore + 3, repository.count());
+	}
+}
@@ -1,5 +1,8 @@
 package com.devsuperior.dscatalog.services;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,11 +11,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.config.SqlMetrics;
 import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.search.SearchQueryMode;
+import com.devsuperior.dscatalog.tests.SqlAssertions;
+
+import jakarta.persistence.EntityManager;
 
 @SpringBootTest
 @Transactional
@@ -24,6 +34,9 @@ public class ProductServiceIT {
 	@Autowired
 	private ProductRepository repository;
 	
+	@Autowired
+	private EntityManager entityManager;
+	
 	private Long existingId;
 	private Long nonExistingId;
 	private Long countTotalProducts;
@@ -74,4 +87,68 @@ public class ProductServiceIT {
 		Assertions.assertEquals("PC Gamer", result.getContent().get(1).getName());
 		Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(2).getName());
 	}
+	
+	// a full page (10 of 25) so Spring Data cannot skip the COUNT: page select, COUNT and one category batch
+	@Test
+	public void findAllPagedShouldLoadFullPageInThreeStatementsIncludingCount() {
+		Page<ProductDTO> result = countStatements(3, () -> service.findAllPaged(PageRequest.of(0, 10)));
+		Assertions.assertEquals(10, result.getNumberOfElements());
+		Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+		Assertions.assertEquals(2, result.getContent().get(1).getCategories().size());
+	}
+	
+	@Test
+	public void findAllShouldLoadFullIndexedPageInAtMostTwoStatements() {
+		Page<ProductDTO> result = countStatements(2, () -> service.findAll("", "", PageRequest.of(0, 10, Sort.by("name"))));
+		Assertions.assertEquals(10, result.getNumberOfElements());
+		Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+	}
+	
+	// a two-key sort is not served by the index; TWO_STEP from the database: id page, COUNT and the product fetch with categories
+	@Test
+	public void findAllShouldLoadFullDatabasePageInThreeStatementsIncludingCount() {
+		Page<ProductDTO> result = countStatements(3, () -> service.findAll("", "", PageRequest.of(0, 10, Sort.by("name", "id"))));
+		Assertions.assertEquals(10, result.getNumberOfElements());
+		Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+	}
+	
+	@Test
+	public void findAllShouldLoadFullDatabasePageInOneStatementWhenQueryModeIsWindow() {
+		ProductService target = AopTestUtils.getTargetObject(service);
+		ReflectionTestUtils.setField(target, "queryMode", SearchQueryMode.WINDOW);
+		try {
+			Page<ProductDTO> result = countStatements(1, () -> service.findAll("", "", PageRequest.of(0, 10, Sort.by("name", "id"))));
+			Assertions.assertEquals(10, result.getNumberOfElements());
+			Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+		}
+		finally {
+			ReflectionTestUtils.setField(target, "queryMode", SearchQueryMode.TWO_STEP);
+		}
+	}
+	
+	@Test
+	public void findByIdShouldLoadProductAndCategoriesInOneStatement() {
+		ProductDTO result = countStatements(1, () -> service.findById(2L));
+		Assertions.assertEquals(2, result.getCategories().size());
+	}
+	
+	@Test
+	public void findByIdsShouldLoadProductsAndCategoriesInOneStatement() {
+		List<ProductDTO> result = countStatements(1, () -> service.findByIds(List.of(3L, 2L, 1L)));
+		Assertions.assertEquals(List.of(3L, 2L, 1L), result.stream().map(x -> x.getId()).toList());
+	}
+	
+	@Test
+	public void findByIdShouldTagStatementWithRepositoryMethod() {
+		entityManager.clear();
+		try (SqlMetrics.Capture capture = SqlMetrics.capture()) {
+			service.findById(2L);
+			Assertions.assertEquals(List.of("ProductRepository.findWithCategoriesById"), capture.repositoryMethods());
+		}
+	}
+	
+	private <T> T countStatements(int max, Supplier<T> call) {
+		entityManager.clear();
+		return SqlAssertions.assertStatementsAtMost(max, call);
+	}
 }
@@ -11,6 +11,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -25,6 +26,8 @@ import com.devsuperior.dscatalog.repositories.CategoryRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.search.ProductSearchCounter;
+import com.devsuperior.dscatalog.services.search.ProductSearchIndex;
 import com.devsuperior.dscatalog.tests.Factory;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -41,6 +44,15 @@ public class ProductServiceTests {
 	@Mock
 	private CategoryRepository categoryRepository;
 	
+	@Mock
+	private ProductSearchIndex searchIndex;
+	
+	@Mock
+	private ProductSearchCounter searchCounter;
+	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	
 	//fixtures
 	private long existingId;
 	private long nonExistingId;
@@ -66,8 +78,8 @@ public class ProductServiceTests {
 		Mockito.doThrow(EntityNotFoundException.class).when(repository).getReferenceById(nonExistingId);
 		Mockito.when(categoryRepository.getReferenceById(existingId)).thenReturn(category);
 		Mockito.doThrow(EntityNotFoundException.class).when(categoryRepository).getReferenceById(nonExistingId);
-		Mockito.when(repository.findById(existingId)).thenReturn(Optional.of(product));
-		Mockito.when(repository.findById(nonExistingId)).thenReturn(Optional.empty());
+		Mockito.when(repository.findWithCategoriesById(existingId)).thenReturn(Optional.of(product));
+		Mockito.when(repository.findWithCategoriesById(nonExistingId)).thenReturn(Optional.empty());
 		Mockito.doNothing().when(repository).deleteById(existingId);
 		Mockito.doThrow(DataIntegrityViolationException.class).when(repository).deleteById(dependentId);
 		Mockito.when(repository.existsById(existingId)).thenReturn(true);
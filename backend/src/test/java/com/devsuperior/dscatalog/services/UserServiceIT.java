@@ -0,0 +1,74 @@
+package com.devsuperior.dscatalog.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.devsuperior.dscatalog.dto.RoleDTO;
+import com.devsuperior.dscatalog.dto.UserDTO;
+import com.devsuperior.dscatalog.dto.UserUpdateDTO;
+
+@SpringBootTest
+public class UserServiceIT {
+
+	@Autowired
+	private UserService service;
+
+	private Long existingId;
+	private String existingEmail;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 2L;
+		existingEmail = "maria@gmail.com";
+		Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").claim("username", existingEmail).build();
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void loadUserByUsernameShouldReturnCachedUserUntilUserIsUpdated() {
+		UserDetails first = service.loadUserByUsername(existingEmail);
+		Assertions.assertSame(first, service.loadUserByUsername(existingEmail));
+
+		service.update(existingId, unchangedUser());
+
+		UserDetails reloaded = service.loadUserByUsername(existingEmail);
+		Assertions.assertNotSame(first, reloaded);
+		Assertions.assertEquals(first.getPassword(), reloaded.getPassword());
+	}
+
+	@Test
+	public void findMeShouldReturnCachedUserUntilUserIsUpdated() {
+		UserDTO first = service.findMe();
+		Assertions.assertSame(first, service.findMe());
+
+		service.update(existingId, unchangedUser());
+
+		UserDTO reloaded = service.findMe();
+		Assertions.assertNotSame(first, reloaded);
+		Assertions.assertEquals(existingEmail, reloaded.getEmail());
+		Assertions.assertEquals(2, reloaded.getRoles().size());
+	}
+
+	private UserUpdateDTO unchangedUser() {
+		UserUpdateDTO dto = new UserUpdateDTO();
+		dto.setFirstName("Maria");
+		dto.setLastName("Green");
+		dto.setEmail(existingEmail);
+		dto.getRoles().add(new RoleDTO(1L, "ROLE_OPERATOR"));
+		dto.getRoles().add(new RoleDTO(2L, "ROLE_ADMIN"));
+		return dto;
+	}
+}
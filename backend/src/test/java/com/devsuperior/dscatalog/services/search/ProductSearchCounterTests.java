@@ -0,0 +1,151 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscatalog.dto.SearchPage;
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSearchCounterTests {
+	
+	@InjectMocks
+	private ProductSearchCounter counter;
+	
+	@Mock
+	private ProductRepository repository;
+	
+	@Mock
+	private NamedParameterJdbcTemplate jdbcTemplate;
+	
+	@Mock
+	private JdbcTemplate plainJdbcTemplate;
+	
+	private List<Long> noCategories;
+	private Pageable pageable;
+	private List<ProductProjection> content;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		noCategories = List.of();
+		pageable = PageRequest.of(0, 2);
+		content = List.of(Mockito.mock(ProductProjection.class), Mockito.mock(ProductProjection.class));
+		ReflectionTestUtils.setField(counter, "cacheTtlSeconds", 60L);
+		ReflectionTestUtils.setField(counter, "cacheMaxSize", 100L);
+		counter.init();
+		
+		Mockito.when(repository.searchProduct(noCategories, "", pageable)).thenReturn(new PageImpl<>(content, pageable, 25L));
+		Mockito.when(repository.searchProductSlice(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+				.thenReturn(new SliceImpl<>(content, pageable, true));
+		Mockito.when(repository.countProduct(ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(25L);
+		Mockito.when(jdbcTemplate.getJdbcTemplate()).thenReturn(plainJdbcTemplate);
+		Mockito.when(plainJdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("H2");
+	}
+	
+	@Test
+	public void searchShouldReturnPageWithTotalWhenStrategyIsExact() {
+		ReflectionTestUtils.setField(counter, "strategy", CountStrategy.EXACT);
+		
+		SearchPage<ProductProjection> result = counter.search(noCategories, "", pageable);
+		
+		Assertions.assertEquals(25L, result.getTotalElements());
+		Assertions.assertEquals(13, result.getTotalPages());
+		Assertions.assertTrue(result.hasNext());
+		Assertions.assertEquals(CountStrategy.EXACT, result.getCountStrategy());
+		Mockito.verify(repository, Mockito.never()).countProduct(ArgumentMatchers.any(), ArgumentMatchers.any());
+	}
+	
+	@Test
+	public void searchShouldCountOncePerKeyWhenStrategyIsCached() {
+		ReflectionTestUtils.setField(counter, "strategy", CountStrategy.CACHED);
+		
+		SearchPage<ProductProjection> first = counter.search(List.of(3L, 1L), "Gamer", pageable);
+		SearchPage<ProductProjection> second = counter.search(List.of(1L, 3L), "gamer", pageable);
+		counter.search(noCategories, "gamer", pageable);
+		
+		Assertions.assertEquals(25L, first.getTotalElements());
+		Assertions.assertEquals(25L, second.getTotalElements());
+		Assertions.assertEquals(CountStrategy.CACHED, second.getCountStrategy());
+		Mockito.verify(repository, Mockito.times(1)).countProduct(List.of(3L, 1L), "Gamer");
+		Mockito.verify(repository, Mockito.never()).countProduct(List.of(1L, 3L), "gamer");
+		Mockito.verify(repository, Mockito.times(1)).countProduct(noCategories, "gamer");
+	}
+	
+	@Test
+	public void searchShouldCountAgainAfterProductOrCategoryChanged() {
+		ReflectionTestUtils.setField(counter, "strategy", CountStrategy.CACHED);
+		
+		counter.search(noCategories, "tv", pageable);
+		counter.onProductChanged(ProductChangedEvent.deleted(2L));
+		counter.search(noCategories, "tv", pageable);
+		counter.onCategoryChanged(new CategoryChangedEvent(1L, false));
+		counter.search(noCategories, "tv", pageable);
+		
+		Mockito.verify(repository, Mockito.times(3)).countProduct(noCategories, "tv");
+	}
+	
+	@Test
+	public void searchShouldReturnUnknownTotalWithHasNextWhenStrategyIsNone() {
+		ReflectionTestUtils.setField(counter, "strategy", CountStrategy.NONE);
+		
+		SearchPage<ProductProjection> result = counter.search(noCategories, "", pageable);
+		SearchPage<String> copy = new SearchPage<>(List.of("a", "b"), result);
+		
+		Assertions.assertEquals(-1L, result.getTotalElements());
+		Assertions.assertEquals(-1, result.getTotalPages());
+		Assertions.assertTrue(result.hasNext());
+		Assertions.assertEquals(CountStrategy.NONE, result.getCountStrategy());
+		Assertions.assertEquals(-1L, copy.getTotalElements());
+		Assertions.assertTrue(copy.hasNext());
+		Assertions.assertEquals(CountStrategy.NONE, copy.getCountStrategy());
+		Mockito.verify(repository, Mockito.never()).countProduct(ArgumentMatchers.any(), ArgumentMatchers.any());
+	}
+	
+	@Test
+	public void searchShouldReportLastPageWhenStrategyIsNoneAndSliceHasNoNext() {
+		ReflectionTestUtils.setField(counter, "strategy", CountStrategy.NONE);
+		Pageable last = PageRequest.of(3, 2);
+		Mockito.when(repository.searchProductSlice(noCategories, "", last)).thenReturn(new SliceImpl<>(content.subList(0, 1), last, false));
+		
+		SearchPage<ProductProjection> result = counter.search(noCategories, "", last);
+		
+		Assertions.assertFalse(result.hasNext());
+		Assertions.assertTrue(result.isLast());
+		Assertions.assertEquals(1, result.getNumberOfElements());
+		Assertions.assertEquals(-1L, result.getTotalElements());
+	}
+	
+	@Test
+	public void searchShouldFallBackToExactCountWhenStrategyIsEstimatedOnH2() {
+		ReflectionTestUtils.setField(counter, "strategy", CountStrategy.ESTIMATED);
+		
+		SearchPage<ProductProjection> result = counter.search(noCategories, "", pageable);
+		
+		Assertions.assertEquals(25L, result.getTotalElements());
+		Assertions.assertEquals(CountStrategy.EXACT, result.getCountStrategy());
+		Mockito.verify(repository).countProduct(noCategories, "");
+		Mockito.verify(jdbcTemplate, Mockito.never()).queryForObject(ArgumentMatchers.anyString(),
+				ArgumentMatchers.any(SqlParameterSource.class), ArgumentMatchers.eq(String.class));
+	}
+}
@@ -0,0 +1,217 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSearchIndexTests {
+	
+	@InjectMocks
+	private ProductSearchIndex index;
+	
+	@Mock
+	private ProductRepository repository;
+	
+	private List<Long> noCategories;
+	
+	@BeforeEach
+	void setUp() throws Exception{
+		noCategories = List.of();
+		ReflectionTestUtils.setField(index, "enabled", true);
+		ReflectionTestUtils.setField(index, "collation", "pt-BR");
+		Mockito.when(repository.streamIndexableProducts()).thenReturn(Stream.of(
+				projection(1L, "The Lord of the Rings"),
+				projection(2L, "Smart TV"),
+				projection(3L, "Macbook Pro"),
+				projection(4L, "PC Gamer"),
+				projection(5L, "PC Gamer Alfa")));
+		Mockito.when(repository.streamProductCategories()).thenReturn(Stream.of(
+				link(1L, 2L),
+				link(2L, 1L),
+				link(2L, 3L),
+				link(3L, 3L),
+				link(4L, 3L),
+				link(5L, 3L)));
+		index.rebuild();
+	}
+	
+	@Test
+	public void searchShouldMatchSubstringIgnoringCase() {
+		Page<ProductProjection> result = index.search(noCategories, "GAMER", PageRequest.of(0, 10));
+		Assertions.assertEquals(2, result.getTotalElements());
+		Assertions.assertEquals(4L, result.getContent().get(0).getId());
+		Assertions.assertEquals(5L, result.getContent().get(1).getId());
+	}
+	
+	@Test
+	public void searchShouldMatchQueriesShorterThanOneGram() {
+		Page<ProductProjection> result = index.search(noCategories, "tv", PageRequest.of(0, 10));
+		Assertions.assertEquals(1, result.getTotalElements());
+		Assertions.assertEquals("Smart TV", result.getContent().get(0).getName());
+	}
+	
+	@Test
+	public void searchShouldReturnEmptyPageWhenNothingMatches() {
+		Page<ProductProjection> result = index.search(noCategories, "phone", PageRequest.of(0, 10));
+		Assertions.assertTrue(result.isEmpty());
+		Assertions.assertEquals(0, result.getTotalElements());
+	}
+	
+	@Test
+	public void searchShouldSortAndPageByName() {
+		Page<ProductProjection> result = index.search(noCategories, "", PageRequest.of(1, 2, Sort.by("name")));
+		Assertions.assertEquals(5, result.getTotalElements());
+		Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(0).getName());
+		Assertions.assertEquals("Smart TV", result.getContent().get(1).getName());
+	}
+	
+	@Test
+	public void searchShouldSortNamesByCollationIgnoringCaseAndAccents() {
+		index.onProductChanged(new ProductChangedEvent(6L, "árvore de Natal", Set.of(1L), false));
+		index.onProductChanged(new ProductChangedEvent(7L, "Abajur", Set.of(1L), false));
+		index.onProductChanged(new ProductChangedEvent(8L, "bicicleta", Set.of(1L), false));
+		index.onProductChanged(new ProductChangedEvent(9L, "Ébano", Set.of(1L), false));
+		
+		Page<ProductProjection> result = index.search(List.of(1L), "", PageRequest.of(0, 10, Sort.by("name")));
+		Assertions.assertEquals(List.of("Abajur", "árvore de Natal", "bicicleta", "Ébano", "Smart TV"),
+				result.getContent().stream().map(x -> x.getName()).toList());
+	}
+	
+	@Test
+	public void searchShouldKeepNameOrderAcrossWrites() {
+		index.onProductChanged(new ProductChangedEvent(2L, "Apple TV", Set.of(1L), false));
+		index.onProductChanged(ProductChangedEvent.deleted(3L));
+		index.onProductChanged(new ProductChangedEvent(6L, "Notebook", Set.of(3L), false));
+		
+		Page<ProductProjection> result = index.search(noCategories, "", PageRequest.of(0, 10, Sort.by("name")));
+		Assertions.assertEquals(List.of("Apple TV", "Notebook", "PC Gamer", "PC Gamer Alfa", "The Lord of the Rings"),
+				result.getContent().stream().map(x -> x.getName()).toList());
+		
+		result = index.search(noCategories, "", PageRequest.of(1, 2, Sort.by("name").descending()));
+		Assertions.assertEquals(List.of("PC Gamer", "Notebook"), result.getContent().stream().map(x -> x.getName()).toList());
+	}
+	
+	@Test
+	public void searchShouldSortFewMatchesByName() {
+		for (long id = 10; id < 50; id++) {
+			index.onProductChanged(new ProductChangedEvent(id, "Item " + id, Set.of(1L), false));
+		}
+		
+		Page<ProductProjection> result = index.search(noCategories, "gamer", PageRequest.of(0, 10, Sort.by("name").descending()));
+		Assertions.assertEquals(2, result.getTotalElements());
+		Assertions.assertEquals(List.of("PC Gamer Alfa", "PC Gamer"), result.getContent().stream().map(x -> x.getName()).toList());
+	}
+	
+	@Test
+	public void searchShouldSortByCodePointWhenCollationIsBinary() {
+		ReflectionTestUtils.setField(index, "collation", "binary");
+		Mockito.when(repository.streamIndexableProducts()).thenReturn(Stream.of(
+				projection(1L, "abacus"),
+				projection(2L, "Zebra"),
+				projection(3L, "Ébano")));
+		Mockito.when(repository.streamProductCategories()).thenReturn(Stream.of(link(1L, 1L), link(2L, 1L), link(3L, 1L)));
+		index.rebuild();
+		
+		Page<ProductProjection> result = index.search(noCategories, "", PageRequest.of(0, 10, Sort.by("name")));
+		Assertions.assertEquals(List.of("Zebra", "abacus", "Ébano"), result.getContent().stream().map(x -> x.getName()).toList());
+	}
+	
+	@Test
+	public void searchShouldMatchShortQueriesInNamesShorterThanOneGram() {
+		index.onProductChanged(new ProductChangedEvent(6L, "TV", Set.of(1L), false));
+		
+		Page<ProductProjection> result = index.search(noCategories, "tv", PageRequest.of(0, 10));
+		Assertions.assertEquals(2, result.getTotalElements());
+		Assertions.assertEquals(2L, result.getContent().get(0).getId());
+		Assertions.assertEquals(6L, result.getContent().get(1).getId());
+		Assertions.assertEquals(3, index.search(noCategories, "g", PageRequest.of(0, 10)).getTotalElements());
+	}
+	
+	@Test
+	public void searchShouldIntersectNameMatchesWithUnionOfCategories() {
+		Page<ProductProjection> result = index.search(List.of(1L, 2L), "", PageRequest.of(0, 10));
+		Assertions.assertEquals(2, result.getTotalElements());
+		Assertions.assertEquals(1L, result.getContent().get(0).getId());
+		Assertions.assertEquals(2L, result.getContent().get(1).getId());
+		
+		result = index.search(List.of(3L), "pro", PageRequest.of(0, 10));
+		Assertions.assertEquals(1, result.getTotalElements());
+		Assertions.assertEquals("Macbook Pro", result.getContent().get(0).getName());
+	}
+	
+	@Test
+	public void onProductChangedShouldMoveProductBetweenCategories() {
+		index.onProductChanged(new ProductChangedEvent(3L, "Macbook Pro", Set.of(1L), false));
+		
+		Assertions.assertEquals(3, index.search(List.of(3L), "", PageRequest.of(0, 10)).getTotalElements());
+		Assertions.assertEquals(2, index.search(List.of(1L), "", PageRequest.of(0, 10)).getTotalElements());
+	}
+	
+	@Test
+	public void onProductChangedShouldReindexRenamedAndDeletedProducts() {
+		index.onProductChanged(new ProductChangedEvent(2L, "Smart Phone", Set.of(1L), false));
+		index.onProductChanged(ProductChangedEvent.deleted(4L));
+		
+		Assertions.assertEquals(0, index.search(noCategories, "tv", PageRequest.of(0, 10)).getTotalElements());
+		Assertions.assertEquals(1, index.search(noCategories, "phone", PageRequest.of(0, 10)).getTotalElements());
+		Assertions.assertEquals(1, index.search(noCategories, "gamer", PageRequest.of(0, 10)).getTotalElements());
+	}
+	
+	@Test
+	public void supportsShouldBeFalseWhenSortPropertyIsNotIndexed() {
+		Assertions.assertTrue(index.supports(PageRequest.of(0, 10, Sort.by("name"))));
+		Assertions.assertFalse(index.supports(PageRequest.of(0, 10, Sort.by("price"))));
+		
+		ReflectionTestUtils.setField(index, "collation", "");
+		Assertions.assertFalse(index.supports(PageRequest.of(0, 10, Sort.by("name"))));
+	}
+	
+	private static ProductCategoryProjection link(Long productId, Long categoryId) {
+		return new ProductCategoryProjection() {
+			
+			@Override
+			public Long getProductId() {
+				return productId;
+			}
+			
+			@Override
+			public Long getCategoryId() {
+				return categoryId;
+			}
+		};
+	}
+	
+	private static ProductProjection projection(Long id, String name) {
+		return new ProductProjection() {
+			
+			@Override
+			public Long getId() {
+				return id;
+			}
+			
+			@Override
+			public String getName() {
+				return name;
+			}
+		};
+	}
+}
@@ -0,0 +1,23 @@
+package com.devsuperior.dscatalog.tests;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+
+import com.devsuperior.dscatalog.config.SqlMetrics;
+
+public class SqlAssertions {
+
+	/**
+	 * Runs the call and fails when it issues more than max JDBC statements on
+	 * this thread, listing the repository method behind each of them.
+	 */
+	public static <T> T assertStatementsAtMost(int max, Supplier<T> call) {
+		try (SqlMetrics.Capture capture = SqlMetrics.capture()) {
+			T result = call.get();
+			Assertions.assertTrue(capture.count() <= max, () -> "Expected at most " + max + " statements but got "
+					+ capture.count() + ": " + capture.repositoryMethods());
+			return result;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.devsuperior.dscatalog.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class CacheUtilsTests {
+
+	private AsyncCache<Long, String> cache;
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cache = Caffeine.newBuilder().maximumSize(100).buildAsync();
+		loads = new AtomicInteger();
+	}
+
+	@Test
+	public void getShouldLoadOnceForConcurrentCallers() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<String> first = executor.submit(() -> CacheUtils.get(cache, 1L, id -> {
+				loads.incrementAndGet();
+				await(release);
+				return "one";
+			}));
+			while (loads.get() == 0) {
+				Thread.sleep(1);
+			}
+			Future<String> second = executor.submit(() -> CacheUtils.get(cache, 1L, id -> "other"));
+			release.countDown();
+
+			Assertions.assertEquals("one", first.get(5, TimeUnit.SECONDS));
+			Assertions.assertEquals("one", second.get(5, TimeUnit.SECONDS));
+		}
+		Assertions.assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void getShouldRethrowLoaderExceptionAndNotCacheIt() {
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> CacheUtils.get(cache, 1L, id -> {
+			throw new ResourceNotFoundException("Entity not found");
+		}));
+
+		Assertions.assertEquals("one", CacheUtils.get(cache, 1L, id -> "one"));
+	}
+
+	@Test
+	public void getAllShouldLoadOnlyMissingKeys() {
+		CacheUtils.get(cache, 1L, id -> "one");
+
+		Map<Long, String> result = CacheUtils.getAll(cache, List.of(1L, 2L, 3L), ids -> {
+			Assertions.assertEquals(2, ids.size());
+			return Map.of(2L, "two");
+		});
+
+		Assertions.assertEquals(Map.of(1L, "one", 2L, "two"), result);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
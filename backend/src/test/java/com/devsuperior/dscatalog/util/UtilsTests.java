@@ -0,0 +1,79 @@
+package com.devsuperior.dscatalog.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.tests.Factory;
+
+public class UtilsTests {
+
+	@Test
+	public void reorderShouldReturnItemsInOrderOfIds() {
+		Random random = new Random(42);
+		List<Product> ordered = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			ordered.add(product(random.nextLong()));
+		}
+		List<Product> shuffled = new ArrayList<>(ordered);
+		Collections.shuffle(shuffled, random);
+
+		List<Product> result = Utils.reorder(Utils.toLongArray(ordered), shuffled, Product::getId);
+
+		Assertions.assertEquals(ordered, result);
+	}
+
+	@Test
+	public void reorderShouldReturnItemsInOrderOfIdsForSearchPage() {
+		List<Product> ordered = new ArrayList<>();
+		for (long i = 12; i > 0; i--) {
+			ordered.add(product(i * 31));
+		}
+		List<Product> shuffled = new ArrayList<>(ordered);
+		Collections.shuffle(shuffled, new Random(42));
+
+		List<Product> result = Utils.reorder(Utils.toLongArray(ordered), shuffled, Product::getId);
+
+		Assertions.assertEquals(ordered, result);
+	}
+
+	@Test
+	public void reorderShouldSkipMissingIdsAndRepeatDuplicatedIds() {
+		Product first = product(1L);
+		Product second = product(2L);
+		List<Product> items = new ArrayList<>(List.of(first, second));
+		for (long i = 100; i < 200; i++) {
+			items.add(product(i));
+		}
+
+		List<Product> result = Utils.reorder(new long[] {2L, 99L, 1L, 2L}, items, Product::getId);
+
+		Assertions.assertEquals(3, result.size());
+		Assertions.assertSame(second, result.get(0));
+		Assertions.assertSame(first, result.get(1));
+		Assertions.assertSame(second, result.get(2));
+	}
+
+	@Test
+	public void reorderShouldKeepFirstItemWhenItemsShareId() {
+		Product first = product(7L);
+		Product duplicate = product(7L);
+		Product[] into = new Product[2];
+
+		int count = Utils.reorder(new long[] {7L, 0L}, List.of(first, duplicate), Product::getId, into);
+
+		Assertions.assertEquals(1, count);
+		Assertions.assertSame(first, into[0]);
+	}
+
+	private static Product product(long id) {
+		Product product = Factory.createProduct();
+		product.setId(id);
+		return product;
+	}
+}